@@ -1,6 +1,7 @@
 package enterprises.iwakura.sigewine.aop.sentry;
 
 import enterprises.iwakura.sigewine.aop.MethodWrapper;
+import enterprises.iwakura.sigewine.aop.SigewineProxy;
 import io.sentry.*;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -45,9 +46,11 @@ public final class SentryTransactionMethodWrapper extends MethodWrapper<SentryTr
         final var txOptions = new TransactionOptions();
         final var configurator = getConfigurator(annotation);
         txOptions.setBindToScope(annotation.bindToScope());
-        configurator.configure(annotation, txOptions, target.getClass(), method, args);
+        // Subclass proxies are the target themselves, name the transaction after the bean class
+        final var targetClass = target instanceof SigewineProxy ? target.getClass().getSuperclass() : target.getClass();
+        configurator.configure(annotation, txOptions, targetClass, method, args);
 
-        final var spanName = getName(annotation, target.getClass(), method);
+        final var spanName = getName(annotation, targetClass, method);
         final ISpan span;
 
         if (currentTransaction == null) {
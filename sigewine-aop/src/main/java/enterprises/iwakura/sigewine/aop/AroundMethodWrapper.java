@@ -0,0 +1,80 @@
+package enterprises.iwakura.sigewine.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+/**
+ * A wrapper for methods that are annotated with a specific annotation, which takes over their invocations. The wrapper
+ * decides whether, when and with which arguments the invocation proceeds (see {@link MethodInvocation#proceed()}),
+ * so it may return a cached result without invoking the method, retry it or invoke it on another thread.
+ * <p>
+ * Wrappers applied to the same method are composed in the order of their priorities (see {@link #getPriority()}): an
+ * around wrapper proceeds to the wrappers with greater priorities, and before and after wrappers with smaller priorities
+ * run around it.
+ *
+ * @param <T> The type of the annotation that this wrapper handles
+ */
+public abstract class AroundMethodWrapper<T extends Annotation> extends MethodWrapper<T> {
+
+    /**
+     * Constructor that initializes the wrapper with the specified annotation class.
+     *
+     * @param annotationClass The class of the annotation that this wrapper handles
+     */
+    public AroundMethodWrapper(Class<T> annotationClass) {
+        super(annotationClass);
+    }
+
+    /**
+     * Constructor that initializes the wrapper with the specified annotation class and priority.
+     *
+     * @param annotationClass The class of the annotation that this wrapper handles
+     * @param priority        The priority of this wrapper, smaller values are applied first
+     */
+    public AroundMethodWrapper(Class<T> annotationClass, int priority) {
+        super(annotationClass, priority);
+    }
+
+    /**
+     * Method to be called instead of the annotated method. The invocation proceeds only if this method calls
+     * {@link MethodInvocation#proceed()} or {@link MethodInvocation#proceed(Object...)}, possibly more than once.
+     *
+     * @param invocation The invocation of the method
+     * @param annotation The annotation instance that is present on the method
+     *
+     * @return The result of the invocation, which must be assignable to the return type of the method
+     *
+     * @throws Throwable if the invocation fails
+     */
+    protected abstract Object around(MethodInvocation invocation, T annotation) throws Throwable;
+
+    /**
+     * Internal method to handle the invocation of the annotated method.
+     * This method casts the annotation object to the specific type and calls the around method.
+     *
+     * @param invocation The invocation of the method
+     * @param annotation The annotation instance that is present on the method
+     *
+     * @return The result of the invocation
+     *
+     * @throws Throwable if the invocation fails
+     */
+    Object aroundInternal(MethodInvocation invocation, Annotation annotation) throws Throwable {
+        return around(invocation, castAnnotationObject(annotation));
+    }
+
+    /**
+     * Not called for around wrappers, see {@link #around(MethodInvocation, Annotation)}.
+     */
+    @Override
+    protected final void beforeInvocation(Object target, Method method, Object[] args, T annotation, Object proxy) {
+    }
+
+    /**
+     * Not called for around wrappers, see {@link #around(MethodInvocation, Annotation)}.
+     */
+    @Override
+    protected final void afterInvocation(Object target, Method method, Object[] args, T annotation, Optional<Object> optionalResult, Optional<Throwable> optionalThrowable, Object proxy) {
+    }
+}
@@ -0,0 +1,98 @@
+package enterprises.iwakura.sigewine.aop;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.scaffold.InstrumentedType;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.bytecode.ByteCodeAppender;
+import net.bytebuddy.implementation.bytecode.StackManipulation;
+import net.bytebuddy.implementation.bytecode.assign.TypeCasting;
+import net.bytebuddy.implementation.bytecode.member.FieldAccess;
+import net.bytebuddy.implementation.bytecode.member.MethodInvocation;
+import net.bytebuddy.implementation.bytecode.member.MethodReturn;
+import net.bytebuddy.implementation.bytecode.member.MethodVariableAccess;
+import net.bytebuddy.jar.asm.Label;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Implementation of the public methods of {@link ProxyMode#DELEGATING} proxy classes without any method wrapper. The
+ * invocation is forwarded to the target of the proxy instance's invocation handler with a plain virtual call, which
+ * the JIT compiler can inline. Until the proxy instance is bound to an invocation handler, e.g. while its constructor
+ * runs, the method of the bean class is invoked with {@code super}. Not meant to be used directly.
+ */
+public final class DelegatingMethodCall implements Implementation {
+
+    private static final MethodDescription GET_TARGET = TypeDescription.ForLoadedType.of(SigewineInvocationHandler.class)
+        .getDeclaredMethods()
+        .filter(ElementMatchers.named("getTarget"))
+        .getOnly();
+
+    private final MethodDescription method;
+
+    /**
+     * Creates the implementation of the method.
+     *
+     * @param method Method of the bean class to forward the invocations to
+     */
+    public DelegatingMethodCall(Method method) {
+        this.method = new MethodDescription.ForLoadedMethod(method);
+    }
+
+    @Override
+    public InstrumentedType prepare(InstrumentedType instrumentedType) {
+        return instrumentedType;
+    }
+
+    @Override
+    public ByteCodeAppender appender(Target implementationTarget) {
+        return (methodVisitor, implementationContext, instrumentedMethod) -> {
+            final var instrumentedType = implementationTarget.getInstrumentedType();
+            final var beanType = instrumentedType.getSuperClass().asErasure();
+            final var invocationHandlerField = FieldAccess.forField(instrumentedType.getDeclaredFields()
+                .filter(ElementMatchers.named(SigewineProxy.INVOCATION_HANDLER_FIELD))
+                .getOnly());
+            var size = StackManipulation.Size.ZERO;
+
+            final var superMethodCall = implementationTarget.invokeSuper(instrumentedMethod.asSignatureToken());
+            if (superMethodCall.isValid()) {
+                // Not bound yet: invoke the method of the bean class
+                final var bound = new Label();
+                size = size.aggregate(new StackManipulation.Compound(
+                    MethodVariableAccess.loadThis(),
+                    invocationHandlerField.read()
+                ).apply(methodVisitor, implementationContext));
+                methodVisitor.visitJumpInsn(Opcodes.IFNONNULL, bound);
+                size = size.aggregate(new StackManipulation.Size(-1, 0));
+                size = size.aggregate(new StackManipulation.Compound(
+                    MethodVariableAccess.loadThis(),
+                    MethodVariableAccess.allArgumentsOf(instrumentedMethod),
+                    superMethodCall,
+                    MethodReturn.of(instrumentedMethod.getReturnType())
+                ).apply(methodVisitor, implementationContext));
+                methodVisitor.visitLabel(bound);
+
+                final var localVariables = new ArrayList<TypeDefinition>();
+                localVariables.add(instrumentedType);
+                localVariables.addAll(instrumentedMethod.getParameters().asTypeList());
+                implementationContext.getFrameGeneration().same(methodVisitor, localVariables);
+            }
+
+            size = size.aggregate(new StackManipulation.Compound(
+                MethodVariableAccess.loadThis(),
+                invocationHandlerField.read(),
+                MethodInvocation.invoke(GET_TARGET),
+                TypeCasting.to(beanType),
+                MethodVariableAccess.allArgumentsOf(instrumentedMethod),
+                MethodInvocation.invoke(method).virtual(beanType),
+                MethodReturn.of(instrumentedMethod.getReturnType())
+            ).apply(methodVisitor, implementationContext));
+
+            return new ByteCodeAppender.Size(size.getMaximalSize(), instrumentedMethod.getStackSize());
+        };
+    }
+}
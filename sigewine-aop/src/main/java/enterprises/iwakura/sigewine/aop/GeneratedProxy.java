@@ -0,0 +1,170 @@
+package enterprises.iwakura.sigewine.aop;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+import lombok.Getter;
+import lombok.SneakyThrows;
+
+/**
+ * Proxy class generated for a bean class by {@link AopExtension}, with the methods it intercepts. Each intercepted
+ * method of the proxy class delegates to {@link SigewineProxyInterceptor} with its index in {@link #getMethods()}, so
+ * invocations are dispatched without any lookup. Methods without any method wrapper are not intercepted: they are
+ * inherited by {@link ProxyMode#SUBCLASS} proxies and forwarded to the target by {@link ProxyMode#DELEGATING} proxies
+ * (see {@link DelegatingMethodCall}).
+ */
+@Getter
+public final class GeneratedProxy {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Class of the proxied bean.
+     */
+    private final Class<?> beanClass;
+
+    /**
+     * Generated proxy class extending the bean class.
+     */
+    private final Class<?> proxyClass;
+
+    /**
+     * Mode of the proxy instances.
+     */
+    private final ProxyMode proxyMode;
+
+    /**
+     * Methods intercepted by the proxy class, by their indexes.
+     */
+    private final List<Method> methods;
+
+    /**
+     * Invokers of the intercepted methods, by their indexes, of type {@code (Object, Object[])Object}. Invokers of
+     * {@link ProxyMode#DELEGATING} proxies invoke the method on the target, invokers of {@link ProxyMode#SUBCLASS}
+     * proxies invoke the method of the bean class on the proxy with {@code super}.
+     */
+    private final List<MethodHandle> invokers;
+
+    /**
+     * Creates the generated proxy, resolving the invokers of its methods.
+     *
+     * @param beanClass  Class of the proxied bean
+     * @param proxyClass Generated proxy class
+     * @param proxyMode  Mode of the proxy instances
+     * @param methods    Methods intercepted by the proxy class, by their indexes
+     */
+    @SneakyThrows
+    public GeneratedProxy(Class<?> beanClass, Class<?> proxyClass, ProxyMode proxyMode, List<Method> methods) {
+        this.beanClass = beanClass;
+        this.proxyClass = proxyClass;
+        this.proxyMode = proxyMode;
+        this.methods = List.copyOf(methods);
+
+        final var lookup = proxyMode == ProxyMode.SUBCLASS
+            ? MethodHandles.privateLookupIn(proxyClass, MethodHandles.lookup())
+            : MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+        final var invokers = new ArrayList<MethodHandle>(methods.size());
+        for (Method method : methods) {
+            final var methodType = MethodType.methodType(method.getReturnType(), method.getParameterTypes());
+            final var invoker = proxyMode == ProxyMode.SUBCLASS
+                ? lookup.findSpecial(beanClass, method.getName(), methodType, proxyClass)
+                : lookup.findVirtual(beanClass, method.getName(), methodType);
+            invokers.add(invoker.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE));
+        }
+        this.invokers = List.copyOf(invokers);
+    }
+
+    /**
+     * Gets the methods of the bean class a proxy class can intercept: all non-final public and protected instance
+     * methods of the class, its superclasses and its interfaces, except the protected methods of {@link Object}. Each
+     * method is represented by its most specific declaration.
+     *
+     * @param beanClass Class of the proxied bean
+     *
+     * @return Interceptable methods
+     */
+    public static List<Method> getInterceptableMethods(Class<?> beanClass) {
+        // The most specific declarations first, including final ones, so final overrides are not intercepted
+        final var methods = new LinkedHashMap<String, Method>();
+        for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                methods.putIfAbsent(getSignature(method), method);
+            }
+        }
+        for (Method method : beanClass.getMethods()) {
+            methods.putIfAbsent(getSignature(method), method);
+        }
+
+        return methods.values().stream()
+            .filter(GeneratedProxy::isInterceptable)
+            .toList();
+    }
+
+    /**
+     * Gets the declarations of the method in the bean class and its supertypes, i.e. the method itself and the methods
+     * it overrides or implements, with the same name and parameter types. Declarations of the class and its
+     * superclasses come first, from the most specific one, followed by declarations of their interfaces.
+     *
+     * @param beanClass Class of the proxied bean
+     * @param method    Method of the bean class
+     *
+     * @return Declarations of the method
+     */
+    public static List<Method> getDeclarations(Class<?> beanClass, Method method) {
+        final var declarations = new ArrayList<Method>();
+        final var interfaces = new LinkedHashSet<Class<?>>();
+        for (Class<?> clazz = beanClass; clazz != null; clazz = clazz.getSuperclass()) {
+            addDeclaration(clazz, method, declarations);
+            collectInterfaces(clazz, interfaces);
+        }
+        for (Class<?> interfaceClass : interfaces) {
+            addDeclaration(interfaceClass, method, declarations);
+        }
+        return declarations;
+    }
+
+    private static void addDeclaration(Class<?> clazz, Method method, List<Method> declarations) {
+        try {
+            final var declaration = clazz.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            final var modifiers = declaration.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers)) {
+                declarations.add(declaration);
+            }
+        } catch (NoSuchMethodException ignored) {
+            // Not declared by the class
+        }
+    }
+
+    private static void collectInterfaces(Class<?> clazz, Set<Class<?>> interfaces) {
+        for (Class<?> interfaceClass : clazz.getInterfaces()) {
+            if (interfaces.add(interfaceClass)) {
+                collectInterfaces(interfaceClass, interfaces);
+            }
+        }
+    }
+
+    private static boolean isInterceptable(Method method) {
+        final var modifiers = method.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || method.isBridge() || method.isSynthetic()) {
+            return false;
+        }
+        if (method.getDeclaringClass() == Object.class) {
+            return Modifier.isPublic(modifiers);
+        }
+        return Modifier.isPublic(modifiers) || Modifier.isProtected(modifiers);
+    }
+
+    private static String getSignature(Method method) {
+        return method.getName() + Arrays.toString(method.getParameterTypes());
+    }
+}
@@ -0,0 +1,80 @@
+package enterprises.iwakura.sigewine.aop;
+
+import java.lang.reflect.Method;
+
+import lombok.Getter;
+
+/**
+ * Invocation of a wrapped method passed to an {@link AroundMethodWrapper}. Proceeding invokes the wrappers applied to
+ * the method after the around wrapper and then the method itself. The invocation may proceed any number of times and
+ * from any thread.
+ */
+public final class MethodInvocation {
+
+    private final WrappedMethod wrappedMethod;
+    private final int bindingIndex;
+
+    /**
+     * The target object on which the method is invoked.
+     */
+    @Getter
+    private final Object target;
+
+    /**
+     * The proxy object that is used to invoke the method.
+     */
+    @Getter
+    private final Object proxy;
+
+    /**
+     * The arguments passed to the method.
+     */
+    @Getter
+    private final Object[] args;
+
+    MethodInvocation(WrappedMethod wrappedMethod, int bindingIndex, Object target, Object proxy, Object[] args) {
+        this.wrappedMethod = wrappedMethod;
+        this.bindingIndex = bindingIndex;
+        this.target = target;
+        this.proxy = proxy;
+        this.args = args;
+    }
+
+    /**
+     * Gets the method that is being invoked.
+     *
+     * @return The method
+     */
+    public Method getMethod() {
+        return wrappedMethod.method;
+    }
+
+    /**
+     * Proceeds the invocation with its arguments.
+     *
+     * @return The result of the invocation
+     *
+     * @throws Throwable if the invocation throws
+     */
+    public Object proceed() throws Throwable {
+        return wrappedMethod.proceed(bindingIndex, target, proxy, args);
+    }
+
+    /**
+     * Proceeds the invocation with other arguments.
+     *
+     * @param args The arguments to pass to the method, matching its parameters
+     *
+     * @return The result of the invocation
+     *
+     * @throws IllegalArgumentException if the number of arguments does not match the method's parameters
+     * @throws Throwable                if the invocation throws
+     */
+    public Object proceed(Object... args) throws Throwable {
+        if (args.length != wrappedMethod.method.getParameterCount()) {
+            throw new IllegalArgumentException("Method %s expects %d arguments, got %d".formatted(
+                wrappedMethod.method, wrappedMethod.method.getParameterCount(), args.length));
+        }
+        return wrappedMethod.proceed(bindingIndex, target, proxy, args);
+    }
+}
@@ -25,6 +25,12 @@ public abstract class MethodWrapper<T extends Annotation> {
      */
     private final Class<T> annotationClass;
 
+    /**
+     * Priority of this wrapper among the wrappers applied to the same method. Smaller values are applied first, i.e.
+     * wrap the others. Wrappers of the same priority are applied in the order they were added.
+     */
+    private final int priority;
+
     /**
      * A cache for annotated methods to avoid repeated reflection lookups.
      */
@@ -36,7 +42,18 @@ public abstract class MethodWrapper<T extends Annotation> {
      * @param annotationClass The class of the annotation that this wrapper handles
      */
     public MethodWrapper(Class<T> annotationClass) {
+        this(annotationClass, 0);
+    }
+
+    /**
+     * Constructor that initializes the wrapper with the specified annotation class and priority.
+     *
+     * @param annotationClass The class of the annotation that this wrapper handles
+     * @param priority        The priority of this wrapper, smaller values are applied first
+     */
+    public MethodWrapper(Class<T> annotationClass, int priority) {
         this.annotationClass = annotationClass;
+        this.priority = priority;
     }
 
     /**
@@ -105,13 +122,41 @@ public abstract class MethodWrapper<T extends Annotation> {
      *
      * @throws IllegalArgumentException if the annotation is not of the expected type
      */
-    private T castAnnotationObject(Object annotation) {
+    T castAnnotationObject(Object annotation) {
         if (annotationClass.isInstance(annotation)) {
             return annotationClass.cast(annotation);
         }
         throw new IllegalArgumentException("Annotation is not of type " + annotationClass.getName());
     }
 
+    /**
+     * Gets the annotation of this wrapper applying to the method of the bean class. Annotations of the method itself
+     * take precedence over annotations of the methods it overrides or implements, which take precedence over
+     * annotations of the classes and interfaces declaring any of them (see
+     * {@link GeneratedProxy#getDeclarations(Class, Method)}).
+     *
+     * @param beanClass The class of the bean the method is invoked on
+     * @param method    The method to get the annotation for
+     *
+     * @return The annotation, or null if this wrapper does not apply to the method
+     */
+    public T getAnnotation(Class<?> beanClass, Method method) {
+        final var declarations = GeneratedProxy.getDeclarations(beanClass, method);
+        for (Method declaration : declarations) {
+            final var methodAnnotation = declaration.getAnnotation(annotationClass);
+            if (methodAnnotation != null) {
+                return methodAnnotation;
+            }
+        }
+        for (Method declaration : declarations) {
+            final var classAnnotation = declaration.getDeclaringClass().getAnnotation(annotationClass);
+            if (classAnnotation != null) {
+                return classAnnotation;
+            }
+        }
+        return null;
+    }
+
     /**
      * Gets all methods that are affected by this method wrapper.
      *
@@ -120,28 +165,39 @@ public abstract class MethodWrapper<T extends Annotation> {
      * @return A map of method names to annotations
      */
     public Map<String, Annotation> getAnnotatedMethods(Object target) {
-        final var cachedMethods = annotatedMethodsCache.get(target.getClass());
+        return getAnnotatedMethods(target.getClass());
+    }
+
+    /**
+     * Gets all methods of the class that are affected by this method wrapper.
+     *
+     * @param targetClass The class to get the methods from
+     *
+     * @return A map of method names to annotations
+     */
+    public Map<String, Annotation> getAnnotatedMethods(Class<?> targetClass) {
+        final var cachedMethods = annotatedMethodsCache.get(targetClass);
         if (cachedMethods != null) {
             return cachedMethods;
         }
 
         final var map = new ConcurrentHashMap<String, Annotation>();
         // If class is annotated, add all methods
-        if (target.getClass().isAnnotationPresent(annotationClass)) {
-            final var classAnnotation = target.getClass().getAnnotation(annotationClass);
-            for (Method method : target.getClass().getDeclaredMethods()) {
+        if (targetClass.isAnnotationPresent(annotationClass)) {
+            final var classAnnotation = targetClass.getAnnotation(annotationClass);
+            for (Method method : targetClass.getDeclaredMethods()) {
                 //noinspection DataFlowIssue
                 map.put(method.getName(), classAnnotation);
             }
         }
         // Go thru all methods and add the ones that are annotated especially
-        for (Method method : target.getClass().getDeclaredMethods()) {
+        for (Method method : targetClass.getDeclaredMethods()) {
             if (method.isAnnotationPresent(annotationClass)) {
                 //noinspection DataFlowIssue
                 map.put(method.getName(), method.getAnnotation(annotationClass));
             }
         }
-        annotatedMethodsCache.put(target.getClass(), map);
+        annotatedMethodsCache.put(targetClass, map);
         return map;
     }
 }
@@ -0,0 +1,24 @@
+package enterprises.iwakura.sigewine.aop;
+
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+
+/**
+ * Mode of proxies created by {@link AopExtension}.
+ */
+public enum ProxyMode {
+
+    /**
+     * The bean is created as usual and a separate proxy instance, extending the bean class, delegates all invocations to
+     * it. The bean class's constructor runs twice and invocations of the bean's own methods from within the bean are
+     * not wrapped, unless the bean calls them through a self-injected field.
+     */
+    DELEGATING,
+
+    /**
+     * The bean is created directly as an instance of the proxy class, which invokes the bean class's methods with
+     * {@code super}. The proxy is the only instance of the bean, its constructor runs once and invocations of the
+     * bean's own methods from within the bean are wrapped as well. Proxied beans are created through their only public
+     * constructor, even when registered from a generated context.
+     */
+    SUBCLASS
+}
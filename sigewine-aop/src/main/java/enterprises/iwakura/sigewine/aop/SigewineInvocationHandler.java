@@ -1,78 +1,55 @@
 package enterprises.iwakura.sigewine.aop;
 
-import lombok.RequiredArgsConstructor;
-
-import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.Collection;
-import java.util.Optional;
-
 /**
- * Invocation handler for Sigewine that handles method invocations and applies
- * the appropriate method wrappers based on annotations.
+ * Invocation handler of a proxy instance, applying the method wrappers of the invoked method and invoking the method
+ * on the target (see {@link WrappedMethod}). The wrapped methods are resolved per proxy class, so handling an
+ * invocation requires no lookup.
  */
-@RequiredArgsConstructor
-public final class SigewineInvocationHandler implements InvocationHandler {
+public final class SigewineInvocationHandler {
 
-    private final Collection<MethodWrapper<? extends Annotation>> methodWrappers;
     private final Object target;
+    private final WrappedMethod[] wrappedMethods;
+
+    /**
+     * Creates an invocation handler of a proxy instance.
+     *
+     * @param target         Target the methods are invoked on: the proxied bean for {@link ProxyMode#DELEGATING}
+     *                       proxies, the proxy itself for {@link ProxyMode#SUBCLASS} proxies
+     * @param wrappedMethods Wrapped methods of the proxy class, by their indexes
+     */
+    public SigewineInvocationHandler(Object target, WrappedMethod[] wrappedMethods) {
+        this.target = target;
+        this.wrappedMethods = wrappedMethods;
+    }
 
-    @Override
-    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        // Prep
-        Optional<Object> optionalResult = Optional.empty();
-        Optional<Throwable> optionalThrowable = Optional.empty();
-
-        // Before invocation
-        for (final var methodWrapper : methodWrappers) {
-            final var annotatedMethods = methodWrapper.getAnnotatedMethods(target);
-
-            if (!annotatedMethods.isEmpty()) {
-                final var annotation = annotatedMethods.get(method.getName());
-                if (annotation != null) {
-                    // Run beforeInvocation for each method wrapper
-                    methodWrapper.beforeInvocationInternal(target, method, args, annotation, proxy);
-                }
-            }
-        }
-        // Invocation
-        try {
-            optionalResult = Optional.ofNullable(method.invoke(target, args));
-        } catch (InvocationTargetException e) {
-            optionalThrowable = Optional.of(e.getCause());
-        } catch (Throwable throwable) {
-            optionalThrowable = Optional.of(throwable);
-        }
-
-        // After invocation
-        for (final var methodWrapper : methodWrappers) {
-            final var annotatedMethods = methodWrapper.getAnnotatedMethods(target);
-
-            if (!annotatedMethods.isEmpty()) {
-                final var annotation = annotatedMethods.get(method.getName());
-                if (annotation != null) {
-                    // Run afterInvocation for each method wrapper
-                    methodWrapper.afterInvocationInternal(
-                            target,
-                            method,
-                            args,
-                            annotation,
-                            optionalResult,
-                            optionalThrowable,
-                            proxy
-                    );
-                }
-            }
-        }
+    /**
+     * Gets the target the methods are invoked on.
+     *
+     * @return Target of the invocations
+     */
+    public Object getTarget() {
+        return target;
+    }
 
-        // Re-throw the exception to allow it to propagate
-        if (optionalThrowable.isPresent()) {
-            throw optionalThrowable.get();
+    /**
+     * Handles an invocation of a proxy's method.
+     *
+     * @param proxy       Proxy instance
+     * @param methodIndex Index of the invoked method (see {@link GeneratedProxy#getMethods()})
+     * @param args        Arguments of the invocation
+     *
+     * @return Result of the invocation
+     *
+     * @throws Throwable if the invocation throws
+     */
+    public Object invoke(Object proxy, int methodIndex, Object[] args) throws Throwable {
+        final var wrappedMethod = wrappedMethods[methodIndex];
+        final var bindings = wrappedMethod.bindings;
+
+        if (bindings.length == 0) {
+            return (Object) wrappedMethod.invoker.invokeExact(target, args);
         }
 
-        // Return the result or null if no result
-        return optionalResult.orElse(null);
+        return wrappedMethod.proceed(0, target, proxy, args);
     }
 }
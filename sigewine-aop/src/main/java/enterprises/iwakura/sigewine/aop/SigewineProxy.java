@@ -0,0 +1,29 @@
+package enterprises.iwakura.sigewine.aop;
+
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+
+/**
+ * Implemented by proxy classes generated by {@link AopExtension}. Proxy classes are cached and shared by all proxied
+ * instances of the same bean class, so each proxy instance is bound to its own invocation handler.
+ */
+public interface SigewineProxy {
+
+    /**
+     * Name of the field of proxy classes holding the invocation handler of the proxy instance.
+     */
+    String INVOCATION_HANDLER_FIELD = "sigewine$invocationHandler";
+
+    /**
+     * Gets the invocation handler the proxy instance is bound to.
+     *
+     * @return Invocation handler, or null if the proxy instance is not bound yet
+     */
+    SigewineInvocationHandler getSigewineInvocationHandler();
+
+    /**
+     * Binds the proxy instance to the invocation handler.
+     *
+     * @param invocationHandler Invocation handler to handle invocations of the proxy instance's methods
+     */
+    void setSigewineInvocationHandler(SigewineInvocationHandler invocationHandler);
+}
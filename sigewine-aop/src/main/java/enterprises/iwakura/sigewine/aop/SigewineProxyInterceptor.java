@@ -0,0 +1,71 @@
+package enterprises.iwakura.sigewine.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.FieldValue;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperMethod;
+import net.bytebuddy.implementation.bind.annotation.This;
+
+/**
+ * Interceptor the methods of generated proxy classes delegate to. Passes the invocations to the invocation handler the
+ * proxy instance is bound to (see {@link SigewineProxy}). Not meant to be called directly.
+ */
+public final class SigewineProxyInterceptor {
+
+    private SigewineProxyInterceptor() {
+    }
+
+    /**
+     * Intercepts an invocation of a proxy instance's method. Until the proxy instance is bound to an invocation handler,
+     * e.g. while its constructor runs, the method of the bean class is invoked.
+     *
+     * @param proxy             Proxy instance
+     * @param invocationHandler Invocation handler the proxy instance is bound to, or null
+     * @param methodIndex       Index of the invoked method, a constant of the generated method
+     * @param args              Arguments of the invocation
+     * @param superMethod       Method invoking the method of the bean class, or null if it is abstract
+     *
+     * @return Result of the invocation
+     *
+     * @throws Throwable if the invocation throws
+     */
+    @RuntimeType
+    public static Object intercept(
+        @This Object proxy,
+        @FieldValue(SigewineProxy.INVOCATION_HANDLER_FIELD) SigewineInvocationHandler invocationHandler,
+        @MethodIndex int methodIndex,
+        @AllArguments Object[] args,
+        @SuperMethod(nullIfImpossible = true) Method superMethod
+    ) throws Throwable {
+        if (invocationHandler != null) {
+            return invocationHandler.invoke(proxy, methodIndex, args);
+        }
+
+        if (superMethod == null) {
+            throw new IllegalStateException("Proxy of " + proxy.getClass().getSuperclass().getName() + " is not bound to an invocation handler");
+        }
+
+        try {
+            return superMethod.invoke(proxy, args);
+        } catch (InvocationTargetException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Binds the index of the intercepted method (see {@link GeneratedProxy#getMethods()}), a constant of each generated
+     * method.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface MethodIndex {
+
+    }
+}
@@ -0,0 +1,144 @@
+package enterprises.iwakura.sigewine.aop;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Intercepted method of a proxy with the method wrappers applied to it, resolved once per proxy class and
+ * {@link enterprises.iwakura.sigewine.aop.extension.AopExtension}. Invocations of the method iterate the immutable
+ * array of its wrappers and invoke the method through a compiled invoker, without any lookup or reflection.
+ * <p>
+ * The wrappers are applied in their order: each {@link AroundMethodWrapper} proceeds to the wrappers after it, while
+ * consecutive before and after wrappers are applied together, i.e. all their before invocations, the wrappers after
+ * them and the method, and all their after invocations.
+ */
+public final class WrappedMethod {
+
+    final Method method;
+    final MethodHandle invoker;
+    final Binding[] bindings;
+
+    /**
+     * Indexes of the bindings the invocation proceeds to after each binding: the next binding for around wrappers, the
+     * end of the group of consecutive before and after wrappers for them.
+     */
+    private final int[] proceedIndexes;
+
+    /**
+     * Creates the wrapped method.
+     *
+     * @param method   Intercepted method
+     * @param invoker  Invoker of the method, of type {@code (Object, Object[])Object} (see
+     *                 {@link GeneratedProxy#getInvokers()})
+     * @param bindings Method wrappers applied to the method with their annotations, in their order
+     */
+    public WrappedMethod(Method method, MethodHandle invoker, List<Binding> bindings) {
+        this.method = method;
+        this.invoker = invoker;
+        this.bindings = bindings.toArray(Binding[]::new);
+        this.proceedIndexes = new int[this.bindings.length];
+
+        int groupEnd = this.bindings.length;
+        for (int index = this.bindings.length - 1; index >= 0; index--) {
+            if (this.bindings[index].isAround()) {
+                proceedIndexes[index] = index + 1;
+                groupEnd = index;
+            } else {
+                proceedIndexes[index] = groupEnd;
+            }
+        }
+    }
+
+    /**
+     * Checks whether any method wrapper is applied to the method.
+     *
+     * @return True if the method is wrapped
+     */
+    public boolean isWrapped() {
+        return bindings.length != 0;
+    }
+
+    /**
+     * Invokes the method with the wrappers from the binding at the index.
+     *
+     * @param bindingIndex Index of the first binding to apply, the method itself is invoked at the end of the bindings
+     * @param target       Target the method is invoked on
+     * @param proxy        Proxy instance
+     * @param args         Arguments of the invocation
+     *
+     * @return Result of the invocation
+     *
+     * @throws Throwable if the invocation throws
+     */
+    Object proceed(int bindingIndex, Object target, Object proxy, Object[] args) throws Throwable {
+        if (bindingIndex == bindings.length) {
+            return (Object) invoker.invokeExact(target, args);
+        }
+
+        final var proceedIndex = proceedIndexes[bindingIndex];
+        if (bindings[bindingIndex].isAround()) {
+            final var binding = bindings[bindingIndex];
+            final var invocation = new MethodInvocation(this, proceedIndex, target, proxy, args);
+            return ((AroundMethodWrapper<?>) binding.methodWrapper()).aroundInternal(invocation, binding.annotation());
+        }
+
+        // Before invocation
+        for (int index = bindingIndex; index < proceedIndex; index++) {
+            final var binding = bindings[index];
+            binding.methodWrapper().beforeInvocationInternal(target, method, args, binding.annotation(), proxy);
+        }
+
+        // Invocation
+        Object result = null;
+        Throwable throwable = null;
+        try {
+            result = proceed(proceedIndex, target, proxy, args);
+        } catch (Throwable invocationThrowable) {
+            throwable = invocationThrowable;
+        }
+
+        // After invocation
+        final Optional<Object> optionalResult = Optional.ofNullable(result);
+        final Optional<Throwable> optionalThrowable = Optional.ofNullable(throwable);
+        for (int index = bindingIndex; index < proceedIndex; index++) {
+            final var binding = bindings[index];
+            binding.methodWrapper().afterInvocationInternal(
+                    target,
+                    method,
+                    args,
+                    binding.annotation(),
+                    optionalResult,
+                    optionalThrowable,
+                    proxy
+            );
+        }
+
+        // Re-throw the exception to allow it to propagate
+        if (throwable != null) {
+            throw throwable;
+        }
+
+        return result;
+    }
+
+    /**
+     * Method wrapper applied to a method, with its annotation applying to the method.
+     *
+     * @param methodWrapper Method wrapper
+     * @param annotation    Annotation of the method wrapper applying to the method
+     */
+    public record Binding(MethodWrapper<?> methodWrapper, Annotation annotation) {
+
+        /**
+         * Checks whether the method wrapper is an {@link AroundMethodWrapper}.
+         *
+         * @return True if the method wrapper takes over the invocation
+         */
+        public boolean isAround() {
+            return methodWrapper instanceof AroundMethodWrapper<?>;
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package enterprises.iwakura.sigewine.aop.extension;
 
+import enterprises.iwakura.sigewine.aop.DelegatingMethodCall;
+import enterprises.iwakura.sigewine.aop.GeneratedProxy;
 import enterprises.iwakura.sigewine.aop.MethodWrapper;
+import enterprises.iwakura.sigewine.aop.ProxyMode;
+import enterprises.iwakura.sigewine.aop.SigewineProxy;
+import enterprises.iwakura.sigewine.aop.SigewineProxyInterceptor;
+import enterprises.iwakura.sigewine.aop.WrappedMethod;
 import enterprises.iwakura.sigewine.core.BeanDefinition;
 import enterprises.iwakura.sigewine.core.Sigewine;
 import enterprises.iwakura.sigewine.aop.SigewineInvocationHandler;
 import enterprises.iwakura.sigewine.core.extension.SigewineExtension;
+import lombok.Getter;
+import lombok.NonNull;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.ByteBuddy;
-import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.TargetMethodAnnotationDrivenBinder;
 import net.bytebuddy.matcher.ElementMatchers;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * AOP extension for Sigewine that creates proxies for beans with annotated methods.
@@ -21,43 +35,119 @@ import java.util.*;
 @Slf4j
 public class AopExtension extends SigewineExtension {
 
+    /**
+     * Proxy classes generated for bean classes, by the proxy mode and the annotation classes of the method wrappers
+     * applied to them in their order. Shared by all instances of the extension, e.g. across containers, so a bean class
+     * with the same method wrappers is generated only once. Proxy classes are loaded by the class loader of their bean
+     * class.
+     */
+    protected static final ClassValue<Map<ProxyKey, GeneratedProxy>> proxyClasses = new ClassValue<>() {
+        @Override
+        protected Map<ProxyKey, GeneratedProxy> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     /**
      * ByteBuddy instance for creating proxies.
      */
     protected final ByteBuddy byteBuddy = new ByteBuddy();
 
     /**
-     * Map of method wrappers for different annotations.
+     * Map of method wrappers for different annotations, in the order they were added.
      * The key is the annotation class, and the value is the method wrapper for that annotation.
      */
-    protected final Map<Class<? extends Annotation>, MethodWrapper<? extends Annotation>> methodWrapperMap = new HashMap<>();
+    protected final Map<Class<? extends Annotation>, MethodWrapper<? extends Annotation>> methodWrapperMap = new LinkedHashMap<>();
 
     /**
-     * Creates a new AopConstellation with specified priority.
+     * Method wrappers applying to bean classes, by the bean classes. Cleared when a method wrapper is added.
+     */
+    protected final Map<Class<?>, List<MethodWrapper<?>>> methodWrappersByClass = new ConcurrentHashMap<>();
+
+    /**
+     * Wrapped methods of generated proxy classes with the method wrappers of this extension, by the proxy classes.
+     * Cleared when a method wrapper is added.
+     */
+    protected final Map<Class<?>, WrappedMethod[]> wrappedMethods = new ConcurrentHashMap<>();
+
+    /**
+     * Mode of the created proxies.
+     */
+    @Getter
+    protected final ProxyMode proxyMode;
+
+    /**
+     * Creates a new AopConstellation with specified priority, creating {@link ProxyMode#DELEGATING} proxies.
      *
      * @param priority Priority of the extension, lower values are processed first
      */
     public AopExtension(int priority) {
+        this(priority, ProxyMode.DELEGATING);
+    }
+
+    /**
+     * Creates a new AopConstellation with specified priority and proxy mode.
+     *
+     * @param priority  Priority of the extension, lower values are processed first
+     * @param proxyMode Mode of the created proxies
+     */
+    public AopExtension(int priority, @NonNull ProxyMode proxyMode) {
         super(priority);
+        this.proxyMode = proxyMode;
     }
 
     /**
-     * Adds a method wrapper to the method wrapper map.
+     * Adds a method wrapper to the method wrapper map. Must be called before scanning, as the interest of the extension
+     * in bean classes is evaluated once per scan.
      *
      * @param methodWrapper Method wrapper to add
      */
     public void addMethodWrapper(MethodWrapper<?> methodWrapper) {
         methodWrapperMap.put(methodWrapper.getAnnotationClass(), methodWrapper);
+        methodWrappersByClass.clear();
+        wrappedMethods.clear();
     }
 
     @Override
     public void processBeans(Sigewine sigewine) {
     }
 
+    /**
+     * Replaces the bean class with its proxy class in the {@link ProxyMode#SUBCLASS} mode, so the proxy is created as
+     * the only instance of the bean.
+     *
+     * @param beanClass      the class to instantiate
+     * @param beanDefinition the definition of the bean being created
+     * @param sigewine       the Sigewine instance that manages the bean
+     * @return the proxy class, or the bean class if it does not need a proxy
+     */
+    @Override
+    public Class<?> processBeanClass(Class<?> beanClass, BeanDefinition beanDefinition, Sigewine sigewine) {
+        if (proxyMode != ProxyMode.SUBCLASS) {
+            return beanClass;
+        }
+
+        final var methodWrappers = getMethodWrappers(beanClass);
+        if (methodWrappers.isEmpty()) {
+            return beanClass;
+        }
+
+        log.debug("Creating bean '{}' as subclass proxy: '{}'", beanDefinition, methodWrappers);
+        return getProxyClass(beanClass, methodWrappers).getProxyClass();
+    }
+
     @SneakyThrows
     @Override
     public Object processCreatedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
-        final var methodWrappers = getMethodWrappersForObject(beanInstance, methodWrapperMap);
+        if (beanInstance instanceof SigewineProxy proxy && proxy.getSigewineInvocationHandler() == null) {
+            // Created as subclass proxy, methods of the bean class are invoked with super
+            final var beanClass = beanInstance.getClass().getSuperclass();
+            final var generatedProxy = getProxyClass(beanClass, getMethodWrappers(beanClass));
+            proxy.setSigewineInvocationHandler(new SigewineInvocationHandler(proxy, getWrappedMethods(generatedProxy)));
+            return proxy;
+        }
+
+        final var methodWrappers = getMethodWrappers(beanInstance.getClass());
 
         if (!methodWrappers.isEmpty()) {
             // Add the original bean to the map
@@ -65,49 +155,196 @@ public class AopExtension extends SigewineExtension {
 
             log.debug("Creating proxy for bean '{}': '{}'", beanDefinition, methodWrappers);
 
-            final var sigewineProxy = new SigewineInvocationHandler(methodWrappers, beanInstance);
-
-            var proxiedClass = byteBuddy
-                    .subclass(beanInstance.getClass())
-                    .method(ElementMatchers.any()) // Match all methods since proxied bean does not have the methods annotated anymore
-                    .intercept(InvocationHandlerAdapter.of(sigewineProxy))
-                    .make()
-                    .load(beanInstance.getClass().getClassLoader())
-                    .getLoaded();
-            return sigewine.inject(proxiedClass);
+            final var generatedProxy = getProxyClass(beanInstance.getClass(), methodWrappers);
+            final var proxy = (SigewineProxy) sigewine.inject(generatedProxy.getProxyClass());
+            proxy.setSigewineInvocationHandler(new SigewineInvocationHandler(beanInstance, getWrappedMethods(generatedProxy)));
+            return proxy;
         }
 
         // No touching
         return beanInstance;
     }
 
+    /**
+     * Returns the proxy class for the bean class with the method wrappers in the extension's proxy mode, generating it
+     * on first use. Only the interceptable methods (see {@link GeneratedProxy#getInterceptableMethods(Class)}) any of
+     * the method wrappers applies to (see {@link MethodWrapper#getAnnotation(Class, Method)}) delegate to
+     * {@link SigewineProxyInterceptor} with their index. Other methods are inherited by {@link ProxyMode#SUBCLASS}
+     * proxies, while {@link ProxyMode#DELEGATING} proxies forward their public methods to the target with
+     * {@link DelegatingMethodCall} and their protected methods through the interceptor. Proxy instances must be bound to
+     * their invocation handler (see {@link SigewineProxy}).
+     *
+     * @param beanClass      Class of the proxied bean
+     * @param methodWrappers Method wrappers applied to the bean, in their order
+     *
+     * @return Generated proxy extending the bean class
+     */
+    protected GeneratedProxy getProxyClass(Class<?> beanClass, Collection<MethodWrapper<?>> methodWrappers) {
+        final var annotationClasses = methodWrappers.stream()
+            .<Class<? extends Annotation>>map(MethodWrapper::getAnnotationClass)
+            .toList();
+        return proxyClasses.get(beanClass).computeIfAbsent(new ProxyKey(proxyMode, annotationClasses), key -> {
+            log.debug("Generating proxy class for class '{}' with method wrappers '{}'", beanClass.getName(), key);
+            final var methods = new ArrayList<Method>();
+            final var forwardedMethods = new ArrayList<Method>();
+            for (Method method : GeneratedProxy.getInterceptableMethods(beanClass)) {
+                if (isWrapped(beanClass, method, methodWrappers)) {
+                    methods.add(method);
+                } else if (proxyMode == ProxyMode.DELEGATING) {
+                    // Protected methods cannot be invoked on the target by the proxy class, which is in another package
+                    if (Modifier.isPublic(method.getModifiers())) {
+                        forwardedMethods.add(method);
+                    } else {
+                        methods.add(method);
+                    }
+                }
+            }
+
+            var builder = byteBuddy
+                // Constructors keep their annotations, so the proxy class can be created as a bean
+                .subclass(beanClass, ConstructorStrategy.Default.IMITATE_SUPER_CLASS_PUBLIC.withInheritedAnnotations())
+                .defineField(SigewineProxy.INVOCATION_HANDLER_FIELD, SigewineInvocationHandler.class, Visibility.PRIVATE)
+                .implement(SigewineProxy.class)
+                .intercept(FieldAccessor.ofField(SigewineProxy.INVOCATION_HANDLER_FIELD));
+            for (int index = 0; index < methods.size(); index++) {
+                builder = builder
+                    .method(ElementMatchers.is(methods.get(index)))
+                    .intercept(MethodDelegation.withDefaultConfiguration()
+                        .withBinders(TargetMethodAnnotationDrivenBinder.ParameterBinder.ForFixedValue.OfConstant.of(SigewineProxyInterceptor.MethodIndex.class, index))
+                        .to(SigewineProxyInterceptor.class));
+            }
+            for (Method method : forwardedMethods) {
+                builder = builder
+                    .method(ElementMatchers.is(method))
+                    .intercept(new DelegatingMethodCall(method));
+            }
+
+            final var proxyClass = builder
+                .make()
+                .load(beanClass.getClassLoader())
+                .getLoaded();
+            return new GeneratedProxy(beanClass, proxyClass, proxyMode, methods);
+        });
+    }
+
+    private static boolean isWrapped(Class<?> beanClass, Method method, Collection<MethodWrapper<?>> methodWrappers) {
+        for (MethodWrapper<?> methodWrapper : methodWrappers) {
+            if (methodWrapper.getAnnotation(beanClass, method) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the wrapped methods of the generated proxy with the method wrappers of this extension, resolving them on
+     * first use. The annotations of the method wrappers are resolved per method (see
+     * {@link MethodWrapper#getAnnotation(Class, Method)}), and the method wrappers are applied by their priorities (see
+     * {@link MethodWrapper#getPriority()}).
+     *
+     * @param generatedProxy Generated proxy
+     *
+     * @return Wrapped methods, by the indexes of the proxy class's methods
+     */
+    protected WrappedMethod[] getWrappedMethods(GeneratedProxy generatedProxy) {
+        return wrappedMethods.computeIfAbsent(generatedProxy.getProxyClass(), key -> {
+            final var beanClass = generatedProxy.getBeanClass();
+            final var methodWrappers = getMethodWrappers(beanClass);
+            final var methods = generatedProxy.getMethods();
+            final var wrappedMethods = new WrappedMethod[methods.size()];
+
+            for (int index = 0; index < wrappedMethods.length; index++) {
+                final var method = methods.get(index);
+                final var bindings = new ArrayList<WrappedMethod.Binding>();
+                for (MethodWrapper<?> methodWrapper : methodWrappers) {
+                    final var annotation = methodWrapper.getAnnotation(beanClass, method);
+                    if (annotation != null) {
+                        bindings.add(new WrappedMethod.Binding(methodWrapper, annotation));
+                    }
+                }
+                // By priority, the method wrappers of the same priority in the order they were added
+                bindings.sort(Comparator.comparingInt(binding -> binding.methodWrapper().getPriority()));
+                wrappedMethods[index] = new WrappedMethod(method, generatedProxy.getInvokers().get(index), bindings);
+            }
+
+            return wrappedMethods;
+        });
+    }
+
+    /**
+     * Returns whether any method wrapper applies to any interceptable method of the class, so only instances of such
+     * classes are proxied.
+     *
+     * @param beanClass the class of the created bean instance
+     * @return true if instances of the class need a proxy
+     */
+    @Override
+    public boolean isInterestedIn(Class<?> beanClass) {
+        return !getMethodWrappers(beanClass).isEmpty();
+    }
+
+    /**
+     * Returns the method wrappers of this extension applying to instances of the class, resolving them on first use.
+     *
+     * @param beanClass Class to get the wrappers for
+     *
+     * @return List of method wrappers for the class, in the order they were added
+     */
+    protected List<MethodWrapper<?>> getMethodWrappers(Class<?> beanClass) {
+        return methodWrappersByClass.computeIfAbsent(beanClass,
+            key -> List.copyOf(getMethodWrappersForClass(beanClass, methodWrapperMap)));
+    }
+
     /**
      * Returns a list of method wrappers for the given object that should be used.
      *
      * @param bean Object to get the wrappers for
      * @param methodWrapperMap Map of method wrappers to use
      *
-     * @return List of method wrappers for the object
+     * @return List of method wrappers for the object, in the order they were added
      */
     protected Collection<MethodWrapper<?>> getMethodWrappersForObject(
             Object bean,
             Map<Class<? extends Annotation>, MethodWrapper<? extends Annotation>> methodWrapperMap
     ) {
-        final var methodWrappers = new HashSet<MethodWrapper<?>>();
-
-        // Get all annotations from the class and methods
-        final var annotations = new ArrayList<>(List.of(bean.getClass().getAnnotations()));
-        for (Method declaredMethod : bean.getClass().getDeclaredMethods()) {
-            Collections.addAll(annotations, declaredMethod.getAnnotations());
-        }
+        return getMethodWrappersForClass(bean.getClass(), methodWrapperMap);
+    }
 
-        for (var annotation : annotations) {
-            final var methodWrapper = methodWrapperMap.get(annotation.annotationType());
-            if (methodWrapper != null) {
-                methodWrappers.add(methodWrapper);
+    /**
+     * Returns a list of method wrappers for instances of the given class that should be used, i.e. the method wrappers
+     * applying to any of its interceptable methods (see {@link MethodWrapper#getAnnotation(Class, Method)}).
+     *
+     * @param beanClass Class to get the wrappers for
+     * @param methodWrapperMap Map of method wrappers to use
+     *
+     * @return List of method wrappers for the class, in the order they were added
+     */
+    protected Collection<MethodWrapper<?>> getMethodWrappersForClass(
+            Class<?> beanClass,
+            Map<Class<? extends Annotation>, MethodWrapper<? extends Annotation>> methodWrapperMap
+    ) {
+        // In the order the method wrappers were added, so beans of the same class share their proxy class
+        final var methods = GeneratedProxy.getInterceptableMethods(beanClass);
+        final var methodWrappers = new ArrayList<MethodWrapper<?>>();
+        for (MethodWrapper<?> methodWrapper : methodWrapperMap.values()) {
+            for (Method method : methods) {
+                if (methodWrapper.getAnnotation(beanClass, method) != null) {
+                    methodWrappers.add(methodWrapper);
+                    break;
+                }
             }
         }
 
         return methodWrappers;
     }
+
+    /**
+     * Key of a generated proxy class of a bean class.
+     *
+     * @param proxyMode         Mode of the proxy instances
+     * @param annotationClasses Annotation classes of the method wrappers applied to the bean, in their order
+     */
+    protected record ProxyKey(ProxyMode proxyMode, List<Class<? extends Annotation>> annotationClasses) {
+
+    }
 }
@@ -1,33 +1,24 @@
 package enterprises.iwakura.sigewine.core;
 
 import enterprises.iwakura.sigewine.core.annotations.Bean;
-import enterprises.iwakura.sigewine.core.utils.ReflectionUtil;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
 import java.util.*;
-import java.util.stream.Stream;
 
 /**
- * Represents a bean definition. Holds information about the bean's name, class, method, and constructor parameters.<br>
- * Holds so called "bean score" which is the number of beans required to create this bean. If the bean is abstract or an interface, it will add a penalty to the score.
+ * Represents a bean definition. Holds information about the bean's name, class, method, and constructor parameters.
+ * Bean definitions are immutable and their hash is computed once, so they are safe and cheap to use as map keys. The
+ * order in which bean definitions are registered is determined by {@link BeanGraph}.
  */
-@Data
-@AllArgsConstructor
-@RequiredArgsConstructor
+@Getter
 public class BeanDefinition {
 
-    /**
-     * Penalty for abstract beans, interfaces or classes without Bean annotation.
-     */
-    public static final long BEAN_SCORE_PENALTY = 100_000L;
-    private static final ThreadLocal<Set<Class<?>>> computingBeanScores = ThreadLocal.withInitial(LinkedHashSet::new);
-
     /**
      * The name of the bean. If the bean is not named, this will be an empty string.
      */
@@ -44,9 +35,27 @@ public class BeanDefinition {
     private final Method method;
 
     /**
-     * The score of the bean. This is the number of beans required to create this bean.
+     * The interned key of the bean's class and name.
+     */
+    private final BeanKey key;
+
+    @Getter(AccessLevel.NONE)
+    private final int hash;
+
+    /**
+     * Creates a new bean definition.
+     *
+     * @param name   the name of the bean, empty string if not named
+     * @param clazz  the class of the bean
+     * @param method the method that defines the bean, null for class beans
      */
-    private long beanScore = -1;
+    public BeanDefinition(@NonNull String name, @NonNull Class<?> clazz, Method method) {
+        this.name = name;
+        this.clazz = clazz;
+        this.method = method;
+        this.key = BeanKey.of(clazz, name);
+        this.hash = 31 * key.hashCode() + Objects.hashCode(method);
+    }
 
     /**
      * Create a new bean definition.
@@ -57,7 +66,7 @@ public class BeanDefinition {
      */
     public static BeanDefinition of(Class<?> clazz) {
         return new BeanDefinition(
-                Optional.ofNullable(clazz.getAnnotation(Bean.class))
+                Optional.ofNullable(ClassMetadata.of(clazz).getBeanAnnotation())
                         .map(Bean::name)
                         .orElse(""),
                 clazz,
@@ -158,78 +167,23 @@ public class BeanDefinition {
     }
 
     /**
-     * Compute the number of beans required to create this bean.
-     *
-     * @param otherBeanDefinitions the set of other bean definitions to consider when computing the score
+     * Gets the name of the scope the class or method of this bean definition is annotated with.
      *
-     * @return the number of beans required to create this bean
+     * @return name of the scope, {@link BeanScope#SINGLETON} if not annotated
      */
-    public long computeBeanScore(Set<BeanDefinition> otherBeanDefinitions) {
-        if (beanScore != -1) {
-            return beanScore;
-        }
-
-        // If bean definition is for method, use the method's class
-        try {
-            if (computingBeanScores.get().contains(clazz)) {
-                String dependencies = String.join(" -> ",
-                        computingBeanScores.get().stream()
-                            .map(Class::getName)
-                            .toList()
-                ) + " -> " + clazz.getName();
-                throw new IllegalStateException("Circular dependency detected while computing bean score: " + dependencies);
-            } else {
-                computingBeanScores.get().add(clazz);
-            }
-
-            if (method != null) {
-                beanScore = BeanDefinition.of(method.getDeclaringClass()).computeBeanScore(otherBeanDefinitions);
-            } else {
-                // Calculate the bean score to create this bean
-                var constructors = clazz.getConstructors();
-
-                if (constructors.length == 0) {
-                    beanScore = 0;
-                } else if (constructors.length == 1) {
-                    var constructor = constructors[0];
-                    var parameters = constructor.getParameters();
-
-                    if (parameters.length == 0) {
-                        beanScore = 0;
-                    } else {
-                        // Check if the constructor has a Bean annotation
-                        long parameterBeans = parameters.length;
-                        for (var parameter : parameters) {
-                            if (Modifier.isAbstract(parameter.getType().getModifiers()) || parameter.getType().isInterface()) {
-                                // Abstract class, add penalty
-                                parameterBeans += BEAN_SCORE_PENALTY;
-                            }
-
-                            final var parameterClass = parameter.getType();
-                            // Collection parameter, we need to find the generic type
-                            if (Collection.class.isAssignableFrom(parameterClass)) {
-                                var genericTypeClass = ReflectionUtil.getFirstGenericParameterType(parameter);
-                                parameterBeans += sumBeanScoresOfRelatedBeanDefinitions(genericTypeClass, otherBeanDefinitions);
-                            } else if (!parameterClass.isAnnotationPresent(Bean.class)) {
-                                parameterBeans += BEAN_SCORE_PENALTY;
-                                parameterBeans += sumBeanScoresOfRelatedBeanDefinitions(parameterClass, otherBeanDefinitions);
-                            } else {
-                                parameterBeans += BeanDefinition.of(parameter).computeBeanScore(otherBeanDefinitions);
-                            }
-                        }
-
-                        // No Bean annotation, return the number of parameters
-                        beanScore = parameterBeans;
-                    }
-                } else {
-                    throw new IllegalArgumentException("Class " + clazz.getName() + " has more than one constructor");
-                }
-            }
-        } finally {
-            computingBeanScores.get().remove(clazz);
-        }
+    public String getScope() {
+        final var annotation = method != null ? method.getAnnotation(Bean.class) : ClassMetadata.of(clazz).getBeanAnnotation();
+        return annotation != null ? annotation.scope() : BeanScope.SINGLETON;
+    }
 
-        return beanScore;
+    /**
+     * Check if the class or method of this bean definition is annotated as a lazy bean.
+     *
+     * @return true if the bean is annotated with {@link Bean#lazy()} set to true, false otherwise
+     */
+    public boolean isLazy() {
+        final var annotation = method != null ? method.getAnnotation(Bean.class) : ClassMetadata.of(clazz).getBeanAnnotation();
+        return annotation != null && annotation.lazy();
     }
 
     /**
@@ -242,22 +196,32 @@ public class BeanDefinition {
             return List.of();
         }
 
-        var constructors = clazz.getConstructors();
-
-        if (constructors.length == 0) {
+        final var metadata = ClassMetadata.of(clazz);
+        if (metadata.getConstructors().isEmpty()) {
             return List.of();
-        } else if (constructors.length == 1) {
-            var constructor = constructors[0];
-            var parameters = constructor.getParameters();
-
-            return Stream.of(parameters)
-                         .map(BeanDefinition::of)
-                         .toList();
+        } else if (metadata.hasOneConstructor()) {
+            return metadata.getConstructorParameters().stream()
+                           .map(ClassMetadata.ConstructorParameter::beanDefinition)
+                           .toList();
         } else {
             throw new IllegalArgumentException("Class " + clazz.getName() + " has more than one constructor");
         }
     }
 
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        return object instanceof BeanDefinition other && hash == other.hash && key == other.key
+            && Objects.equals(method, other.method);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     @Override
     public String toString() {
         if (hasName()) {
@@ -266,19 +230,4 @@ public class BeanDefinition {
 
         return clazz.getName();
     }
-
-    /**
-     * Sums the bean scores of all bean definitions that are related to the given class.
-     *
-     * @param clazz           the class to check for related bean definitions
-     * @param beanDefinitions the set of bean definitions to check
-     *
-     * @return the sum of bean scores of all related bean definitions
-     */
-    private static long sumBeanScoresOfRelatedBeanDefinitions(Class<?> clazz, Set<BeanDefinition> beanDefinitions) {
-        return beanDefinitions.stream()
-                              .filter(beanDefinition -> beanDefinition.is(BeanDefinition.of(clazz), true))
-                              .mapToLong(beanDefinition -> beanDefinition.computeBeanScore(beanDefinitions))
-                              .sum();
-    }
 }
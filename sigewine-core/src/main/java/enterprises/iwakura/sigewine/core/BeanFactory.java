@@ -0,0 +1,183 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiled factory creating instances of a class through its only public constructor.
+ * <p>
+ * The constructor is resolved, validated and compiled into a {@link MethodHandle} only once per class, together with
+ * the bean definitions of its parameters. Constructors without parameters are additionally compiled into a
+ * {@link Supplier} spun by {@link LambdaMetafactory}, so creating an instance costs about as much as a direct
+ * {@code new} call. Factories are cached per class in a {@link ClassValue}, so they do not keep the classes from being
+ * unloaded.
+ * </p>
+ */
+@Slf4j
+public class BeanFactory {
+
+    private static final ClassValue<BeanFactory> FACTORIES = new ClassValue<>() {
+        @Override
+        protected BeanFactory computeValue(Class<?> type) {
+            return new BeanFactory(type);
+        }
+    };
+
+    private static final MethodType SPREAD_CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType METHOD_BEAN_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Class created by the factory.
+     */
+    @Getter
+    private final Class<?> clazz;
+
+    /**
+     * Pre-resolved dependencies of the constructor, in the order of its parameters.
+     */
+    @Getter
+    private final List<Dependency> dependencies;
+
+    /**
+     * Constructor taking the arguments as an array, of type {@code (Object[])Object}.
+     */
+    private final MethodHandle constructor;
+
+    /**
+     * Constructor compiled into a supplier, null if the constructor has parameters or the class cannot be accessed
+     * by a lambda.
+     */
+    private final Supplier<Object> noArgsConstructor;
+
+    /**
+     * Compiles the factory of the class.
+     *
+     * @param clazz Class to compile the factory of
+     *
+     * @throws IllegalArgumentException if the class does not have exactly one public constructor
+     */
+    @SneakyThrows
+    protected BeanFactory(Class<?> clazz) {
+        final var metadata = ClassMetadata.of(clazz);
+        final var dependencies = metadata.getConstructorParameters().stream()
+            .map(parameter -> new Dependency(parameter.beanDefinition(), parameter.elementType(), parameter.parameter().getName()))
+            .toList();
+
+        final var constructorHandle = MethodHandles.lookup().unreflectConstructor(metadata.getConstructor());
+
+        this.clazz = clazz;
+        this.dependencies = dependencies;
+        this.constructor = constructorHandle.asSpreader(Object[].class, dependencies.size()).asType(SPREAD_CONSTRUCTOR_TYPE);
+        this.noArgsConstructor = dependencies.isEmpty() ? spinNoArgsConstructor(clazz, constructorHandle) : null;
+
+        log.debug("Compiled bean factory of class '{}' with '{}' dependencies", clazz.getName(), dependencies.size());
+    }
+
+    /**
+     * Gets the cached factory of the class, compiling it on first use.
+     *
+     * @param clazz Class to get the factory of
+     *
+     * @return Bean factory of the class
+     *
+     * @throws IllegalArgumentException if the class does not have exactly one public constructor
+     */
+    public static BeanFactory of(Class<?> clazz) {
+        return FACTORIES.get(clazz);
+    }
+
+    /**
+     * Creates a new instance of the class, resolving its constructor dependencies from the Sigewine instance.
+     *
+     * @param sigewine Sigewine instance to resolve the dependencies from
+     *
+     * @return Created instance
+     */
+    @SneakyThrows
+    public Object newInstance(Sigewine sigewine) {
+        if (noArgsConstructor != null) {
+            return noArgsConstructor.get();
+        }
+
+        final var args = new Object[dependencies.size()];
+        for (int i = 0; i < args.length; i++) {
+            final var dependency = dependencies.get(i);
+            args[i] = sigewine.resolveDependency(dependency.definition(), dependency.elementType(), dependency.parameterName(), clazz);
+        }
+        return (Object) constructor.invokeExact(args);
+    }
+
+    /**
+     * Compiles the method of a method bean into a function taking the declaring class instance and returning the bean
+     * instance. Static methods ignore the declaring class instance.
+     *
+     * @param method Method to compile
+     *
+     * @return Compiled method
+     */
+    @SneakyThrows
+    public static Function<Object, Object> compileMethod(Method method) {
+        var methodHandle = MethodHandles.lookup().unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            methodHandle = MethodHandles.dropArguments(methodHandle, 0, Object.class);
+        }
+        final var compiledMethod = methodHandle.asType(METHOD_BEAN_TYPE);
+
+        return new Function<>() {
+            @Override
+            @SneakyThrows
+            public Object apply(Object declaringClassInstance) {
+                return (Object) compiledMethod.invokeExact(declaringClassInstance);
+            }
+
+            @Override
+            public String toString() {
+                return method.toString();
+            }
+        };
+    }
+
+    /**
+     * Spins a supplier calling the constructor without parameters.
+     *
+     * @param clazz             Class of the constructor
+     * @param constructorHandle Handle of the constructor
+     *
+     * @return Supplier, or null if the class does not allow defining a lambda within it
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> spinNoArgsConstructor(Class<?> clazz, MethodHandle constructorHandle) {
+        try {
+            final var lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+            final var callSite = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                MethodType.methodType(Object.class), constructorHandle, MethodType.methodType(clazz));
+            return (Supplier<Object>) callSite.getTarget().invoke();
+        } catch (Throwable throwable) {
+            log.debug("Cannot spin constructor lambda of class '{}', using method handle", clazz.getName(), throwable);
+            return null;
+        }
+    }
+
+    /**
+     * Pre-resolved dependency of a constructor parameter.
+     *
+     * @param definition    Bean definition of the parameter
+     * @param elementType   Element type if the parameter is a collection or a supplier, null otherwise
+     * @param parameterName Name of the parameter
+     */
+    public record Dependency(BeanDefinition definition, Class<?> elementType, String parameterName) {
+
+    }
+}
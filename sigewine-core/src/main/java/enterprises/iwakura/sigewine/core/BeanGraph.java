@@ -0,0 +1,429 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+import lombok.Getter;
+
+/**
+ * Dependency graph of bean definitions.
+ * <p>
+ * For every bean definition, the graph knows which beans may be looked up while it is being created (its constructor
+ * parameters, or the declaring class of a method bean and its constructor parameters) and which beans it registers
+ * (the bean itself and, for method beans, the instance of the declaring class). A bean depends on every other bean
+ * that registers a class assignable to one of its lookups with a compatible name. The matching is conservative: a
+ * dependency may be reported even if the lookup ends up being satisfied by a different bean, but never the other way
+ * around.
+ * </p>
+ * <p>
+ * The graph is built once per scan and sorted topologically by {@link #sort()} to get the order in which the beans are
+ * registered.
+ * </p>
+ */
+@Getter
+public class BeanGraph {
+
+    /**
+     * Bean definitions of the graph. Beans are referred to by their index in this list.
+     */
+    private final List<BeanDefinition> definitions;
+
+    /**
+     * Lookups made while creating each bean, indexed the same as the definitions.
+     */
+    private final List<List<Lookup>> lookups;
+
+    /**
+     * Beans registered by each bean definition, indexed the same as the definitions.
+     */
+    private final List<List<Provided>> provided;
+
+    /**
+     * Index of bean indexes by every supertype of the classes they register.
+     */
+    private final Map<Class<?>, List<Integer>> providersByType = new HashMap<>();
+
+    /**
+     * Index of method bean indexes by their return type. Method beans may register instances of any subclass of their
+     * return type.
+     */
+    private final Map<Class<?>, List<Integer>> methodBeansByType = new HashMap<>();
+
+    /**
+     * Builds the dependency graph of the bean definitions.
+     *
+     * @param definitions Bean definitions
+     */
+    public BeanGraph(List<BeanDefinition> definitions) {
+        this.definitions = List.copyOf(definitions);
+        this.lookups = new ArrayList<>(definitions.size());
+        this.provided = new ArrayList<>(definitions.size());
+
+        for (int index = 0; index < this.definitions.size(); index++) {
+            final var definition = this.definitions.get(index);
+            final var beanLookups = new ArrayList<Lookup>();
+            final var beanProvided = new ArrayList<Provided>();
+
+            beanProvided.add(new Provided(definition.getClazz(), definition.getName(), false));
+
+            if (definition.getMethod() != null) {
+                final var declaringClass = definition.getMethod().getDeclaringClass();
+                beanLookups.add(new Lookup(declaringClass, "", false));
+                addConstructorLookups(declaringClass, beanLookups);
+                beanProvided.add(new Provided(declaringClass, BeanDefinition.of(declaringClass).getName(), true));
+                methodBeansByType.computeIfAbsent(definition.getClazz(), key -> new ArrayList<>(1)).add(index);
+            } else {
+                addConstructorLookups(definition.getClazz(), beanLookups);
+            }
+
+            for (Provided beanProvidedClass : beanProvided) {
+                for (Class<?> supertype : BeanRegistry.getSupertypes(beanProvidedClass.type())) {
+                    final var providers = providersByType.computeIfAbsent(supertype, key -> new ArrayList<>(1));
+                    if (providers.isEmpty() || providers.get(providers.size() - 1) != index) {
+                        providers.add(index);
+                    }
+                }
+            }
+
+            lookups.add(List.copyOf(beanLookups));
+            provided.add(List.copyOf(beanProvided));
+        }
+    }
+
+    /**
+     * Adds lookups of the constructor parameters of the class. Abstract classes and classes without exactly one public
+     * constructor have no lookups, their creation fails regardless of the other beans.
+     *
+     * @param clazz   Class to add the constructor lookups of
+     * @param lookups List to add the lookups to
+     */
+    private static void addConstructorLookups(Class<?> clazz, List<Lookup> lookups) {
+        if (!ClassMetadata.of(clazz).hasOneConstructor() || Modifier.isAbstract(clazz.getModifiers())) {
+            return;
+        }
+
+        final List<BeanFactory.Dependency> dependencies;
+        try {
+            dependencies = BeanFactory.of(clazz).getDependencies();
+        } catch (IllegalArgumentException | ClassCastException exception) {
+            // Unsupported parameter, the creation fails regardless of the other beans
+            return;
+        }
+
+        for (BeanFactory.Dependency dependency : dependencies) {
+            // Suppliers resolve the bean lazily, so they do not order the beans
+            if (dependency.elementType() != null && Collection.class.isAssignableFrom(dependency.definition().getClazz())) {
+                lookups.add(new Lookup(dependency.elementType(), "", true));
+            }
+            lookups.add(new Lookup(dependency.definition().getClazz(), dependency.definition().getName(), false));
+        }
+    }
+
+    /**
+     * Gets the number of beans in the graph.
+     *
+     * @return Number of beans
+     */
+    public int size() {
+        return definitions.size();
+    }
+
+    /**
+     * Gets indexes of all beans that may satisfy the lookup.
+     *
+     * @param lookup                     Lookup to satisfy
+     * @param includeDeclaringInstances Whether method beans registering an instance of their declaring class satisfy
+     *                                   lookups of that class
+     *
+     * @return Set of bean indexes
+     */
+    public BitSet getProviders(Lookup lookup, boolean includeDeclaringInstances) {
+        final var providers = new BitSet(definitions.size());
+        forEachProvider(lookup, includeDeclaringInstances, providers::set);
+        return providers;
+    }
+
+    /**
+     * Passes indexes of all beans that may satisfy the lookup to the action. Only beans registering a subtype of the
+     * looked up class are visited, so the time taken is proportional to their number rather than to the size of the
+     * graph. A method bean may be passed twice for collection lookups.
+     *
+     * @param lookup                     Lookup to satisfy
+     * @param includeDeclaringInstances Whether method beans registering an instance of their declaring class satisfy
+     *                                   lookups of that class
+     * @param action                     Action to pass the bean indexes to
+     */
+    private void forEachProvider(Lookup lookup, boolean includeDeclaringInstances, IntConsumer action) {
+        for (int index : providersByType.getOrDefault(lookup.type(), List.of())) {
+            for (Provided beanProvided : provided.get(index)) {
+                if ((includeDeclaringInstances || !beanProvided.declaringInstance())
+                    && lookup.type().isAssignableFrom(beanProvided.type())
+                    && (lookup.collection() || namesMatch(lookup.name(), beanProvided.name()))) {
+                    action.accept(index);
+                    break;
+                }
+            }
+        }
+
+        if (lookup.collection()) {
+            // Method beans may return any subclass of their return type
+            for (Class<?> supertype : BeanRegistry.getSupertypes(lookup.type())) {
+                for (int index : methodBeansByType.getOrDefault(supertype, List.of())) {
+                    action.accept(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets indexes of all beans the bean depends on, i.e. the beans that may be looked up while it is being created.
+     * The instances of declaring classes registered by method beans are not considered, as they are created on demand
+     * by whichever bean needs them first.
+     *
+     * @param index Index of the bean
+     *
+     * @return Set of bean indexes, never containing the bean itself
+     */
+    public BitSet getDependencies(int index) {
+        return getDependencies(index, false);
+    }
+
+    /**
+     * Gets indexes of all beans that may be looked up while the bean is being created.
+     *
+     * @param index                     Index of the bean
+     * @param includeDeclaringInstances Whether to include method beans registering an instance of a looked up class
+     *
+     * @return Set of bean indexes, never containing the bean itself
+     */
+    private BitSet getDependencies(int index, boolean includeDeclaringInstances) {
+        final var dependencies = new BitSet(definitions.size());
+        for (Lookup lookup : lookups.get(index)) {
+            dependencies.or(getProviders(lookup, includeDeclaringInstances));
+        }
+        dependencies.clear(index);
+        return dependencies;
+    }
+
+    /**
+     * Gets indexes of all beans the bean depends on as an array without duplicates, in the order they are found.
+     *
+     * @param index Index of the bean
+     * @param marks Array sized as the graph, shared between calls, in which the beans already found are marked with
+     *              the bean index plus one
+     *
+     * @return Array of bean indexes, never containing the bean itself
+     */
+    private int[] getDependencyArray(int index, int[] marks) {
+        final var dependencies = new ArrayList<Integer>();
+        final var mark = index + 1;
+        marks[index] = mark;
+        for (Lookup lookup : lookups.get(index)) {
+            forEachProvider(lookup, false, dependency -> {
+                if (marks[dependency] != mark) {
+                    marks[dependency] = mark;
+                    dependencies.add(dependency);
+                }
+            });
+        }
+        return dependencies.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Gets indexes of all beans preceding the bean in the graph's order which must be registered before the bean is
+     * created, so that the bean is created the same way as if all beans were created one by one in that order. These
+     * are its dependencies and the beans whose registration would make the bean already registered.
+     *
+     * @param index Index of the bean
+     *
+     * @return Set of bean indexes smaller than the index
+     */
+    public BitSet getPrecedingDependencies(int index) {
+        final var dependencies = getDependencies(index, true);
+        for (Provided beanProvided : provided.get(index)) {
+            dependencies.or(getProviders(new Lookup(beanProvided.type(), beanProvided.name(), false), true));
+        }
+        dependencies.clear(index, definitions.size());
+        return dependencies;
+    }
+
+    /**
+     * Sorts the beans topologically using Kahn's algorithm, so every bean comes after all beans it depends on. Beans
+     * that do not depend on each other keep the order of the graph.
+     * <p>
+     * The dependencies are collected into adjacency arrays through the type index, so apart from visiting the beans
+     * registering a subtype of every looked up class, the sorting runs in time linear to the number of beans and
+     * dependencies.
+     * </p>
+     *
+     * @return Sorted bean definitions
+     *
+     * @throws IllegalStateException if the beans have circular dependencies, naming all beans of every cycle
+     */
+    public List<BeanDefinition> sort() {
+        final var size = definitions.size();
+        final var dependencies = new ArrayList<int[]>(size);
+        final var dependents = new ArrayList<List<Integer>>(size);
+        final var remainingDependencies = new int[size];
+        final var ready = new ArrayDeque<Integer>();
+        final var marks = new int[size];
+
+        for (int index = 0; index < size; index++) {
+            dependencies.add(getDependencyArray(index, marks));
+            dependents.add(new ArrayList<>(1));
+        }
+
+        for (int index = 0; index < size; index++) {
+            final var beanDependencies = dependencies.get(index);
+            remainingDependencies[index] = beanDependencies.length;
+            for (int dependency : beanDependencies) {
+                dependents.get(dependency).add(index);
+            }
+            if (remainingDependencies[index] == 0) {
+                ready.add(index);
+            }
+        }
+
+        final var sorted = new ArrayList<BeanDefinition>(size);
+        while (!ready.isEmpty()) {
+            final int index = ready.poll();
+            sorted.add(definitions.get(index));
+            for (int dependent : dependents.get(index)) {
+                if (--remainingDependencies[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (sorted.size() != size) {
+            throw new IllegalStateException("Circular dependency detected between beans: " + describeCycles(dependencies, remainingDependencies));
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Finds strongly connected components with more than one bean among the beans left unsorted, using Tarjan's
+     * algorithm, and describes them.
+     *
+     * @param dependencies          Dependencies of every bean
+     * @param remainingDependencies Number of unsorted dependencies of every bean, non-zero for unsorted beans
+     *
+     * @return Description of all cycles
+     */
+    private String describeCycles(List<int[]> dependencies, int[] remainingDependencies) {
+        final var size = definitions.size();
+        final var discovery = new int[size];
+        final var lowLink = new int[size];
+        final var onStack = new boolean[size];
+        final var stack = new ArrayDeque<Integer>();
+        final var cycles = new ArrayList<String>();
+        final var counter = new int[] {0};
+
+        for (int index = 0; index < size; index++) {
+            if (remainingDependencies[index] != 0 && discovery[index] == 0) {
+                strongConnect(index, dependencies, remainingDependencies, discovery, lowLink, onStack, stack, counter, cycles);
+            }
+        }
+
+        return String.join("; ", cycles);
+    }
+
+    private void strongConnect(int index, List<int[]> dependencies, int[] remainingDependencies, int[] discovery, int[] lowLink,
+        boolean[] onStack, Deque<Integer> stack, int[] counter, List<String> cycles) {
+        discovery[index] = lowLink[index] = ++counter[0];
+        stack.push(index);
+        onStack[index] = true;
+
+        for (int dependency : dependencies.get(index)) {
+            if (remainingDependencies[dependency] == 0) {
+                // Sorted bean, cannot be part of a cycle
+                continue;
+            }
+            if (discovery[dependency] == 0) {
+                strongConnect(dependency, dependencies, remainingDependencies, discovery, lowLink, onStack, stack, counter, cycles);
+                lowLink[index] = Math.min(lowLink[index], lowLink[dependency]);
+            } else if (onStack[dependency]) {
+                lowLink[index] = Math.min(lowLink[index], discovery[dependency]);
+            }
+        }
+
+        if (lowLink[index] == discovery[index]) {
+            final var component = new ArrayList<Integer>();
+            int member;
+            do {
+                member = stack.pop();
+                onStack[member] = false;
+                component.add(member);
+            } while (member != index);
+
+            if (component.size() > 1) {
+                cycles.add(component.stream()
+                    .sorted()
+                    .map(definitions::get)
+                    .map(BeanGraph::describe)
+                    .collect(Collectors.joining(", ")));
+            }
+        }
+    }
+
+    /**
+     * Describes the bean definition for error messages.
+     *
+     * @param definition Bean definition
+     *
+     * @return Description of the bean
+     */
+    private static String describe(BeanDefinition definition) {
+        final var method = definition.getMethod();
+        if (method != null) {
+            return method.getDeclaringClass().getName() + "#" + method.getName() + "()";
+        }
+        return definition.getClazz().getName() + (definition.hasName() ? " ('" + definition.getName() + "')" : "");
+    }
+
+    /**
+     * Checks if the name of a lookup matches the name of a registered bean. Unnamed lookups and unnamed beans match
+     * any name.
+     *
+     * @param lookupName Name of the lookup
+     * @param beanName   Name of the bean
+     *
+     * @return True if the names match, false otherwise
+     */
+    private static boolean namesMatch(String lookupName, String beanName) {
+        return lookupName.isBlank() || beanName.isBlank() || lookupName.equals(beanName);
+    }
+
+    /**
+     * Lookup of a bean made while creating another bean.
+     *
+     * @param type       Class of the looked up bean, or element type of the collection
+     * @param name       Name of the looked up bean, empty string if not named
+     * @param collection Whether all beans assignable to the type are looked up
+     */
+    public record Lookup(Class<?> type, String name, boolean collection) {
+
+    }
+
+    /**
+     * Bean registered by a bean definition.
+     *
+     * @param type              Class the bean is registered as
+     * @param name              Name the bean is registered with
+     * @param declaringInstance Whether the bean is the instance of a method bean's declaring class
+     */
+    public record Provided(Class<?> type, String name, boolean declaringInstance) {
+
+    }
+}
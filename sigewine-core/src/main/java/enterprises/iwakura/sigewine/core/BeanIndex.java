@@ -0,0 +1,236 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compile-time index of classes and methods annotated with {@link Bean}, written by the {@code sigewine-processor}
+ * annotation processor into {@value #INDEX_LOCATION}.
+ * <p>
+ * Each line of the index is either {@code class <binary class name> <bean name>} or
+ * {@code method <binary name of declaring class> <method name> <bean name>}, with columns separated by a tab
+ * character. Lines starting with {@code #} are comments.
+ * </p>
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class BeanIndex {
+
+    /**
+     * Location of the bean index files on the classpath.
+     */
+    public static final String INDEX_LOCATION = "META-INF/sigewine/beans.idx";
+
+    /**
+     * Entries of the index.
+     */
+    private final Set<Entry> entries;
+
+    /**
+     * Classpath roots the index files were loaded from, see {@link #isIndexed(URL)}.
+     */
+    private final Set<String> indexedRoots;
+
+    /**
+     * Loads all bean index files visible to the class loader and keeps only the entries within the package (or its
+     * subpackages).
+     *
+     * @param packageName Package name to filter the entries by. Empty string keeps all entries.
+     * @param classLoader Class loader to load the index files with
+     *
+     * @return Bean index or null if there is no index file on the classpath
+     */
+    public static BeanIndex load(String packageName, ClassLoader classLoader) {
+        final List<URL> indexUrls;
+        try {
+            indexUrls = Collections.list(classLoader.getResources(INDEX_LOCATION));
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to list " + INDEX_LOCATION + " resources", exception);
+        }
+
+        if (indexUrls.isEmpty()) {
+            return null;
+        }
+
+        final var prefix = packageName.isEmpty() ? "" : packageName + ".";
+        final var entries = new LinkedHashSet<Entry>();
+        final var indexedRoots = new LinkedHashSet<String>();
+
+        for (URL indexUrl : indexUrls) {
+            log.debug("Reading bean index '{}'", indexUrl);
+            final var indexUrlString = indexUrl.toExternalForm();
+            indexedRoots.add(normalizeRoot(indexUrlString.substring(0, indexUrlString.length() - INDEX_LOCATION.length())));
+            try (var reader = new BufferedReader(new InputStreamReader(indexUrl.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final var entry = Entry.parse(line);
+                    if (entry != null && entry.getClassName().startsWith(prefix)) {
+                        entries.add(entry);
+                    }
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Failed to read bean index " + indexUrl, exception);
+            }
+        }
+
+        return new BeanIndex(entries, indexedRoots);
+    }
+
+    /**
+     * Checks whether the classpath root contains a bean index file. Beans of classpath roots without an index, e.g. jars
+     * compiled without {@code sigewine-processor} that contain classes of an indexed package, must be scanned.
+     *
+     * @param root URL of the classpath root, e.g. a directory or a jar file
+     *
+     * @return True if the index was loaded from the classpath root
+     */
+    public boolean isIndexed(URL root) {
+        return indexedRoots.contains(normalizeRoot(root.toExternalForm()));
+    }
+
+    /**
+     * Normalizes the URL of a classpath root, so directories and jar files compare equal regardless of whether they are
+     * written as {@code jar:file:/app.jar!/} or {@code file:/app.jar}, with or without a trailing slash.
+     *
+     * @param root URL of the classpath root
+     *
+     * @return Normalized URL
+     */
+    private static String normalizeRoot(String root) {
+        var normalized = root;
+        if (normalized.startsWith("jar:")) {
+            normalized = normalized.substring("jar:".length());
+        }
+        if (normalized.endsWith("!/")) {
+            normalized = normalized.substring(0, normalized.length() - "!/".length());
+        }
+        if (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * Resolves the classes annotated with {@link Bean} listed in the index.
+     *
+     * @param classLoader Class loader to load the classes with
+     *
+     * @return Set of annotated classes
+     *
+     * @throws ClassNotFoundException if an indexed class cannot be loaded
+     */
+    public Set<Class<?>> getAnnotatedClasses(ClassLoader classLoader) throws ClassNotFoundException {
+        final var classes = new LinkedHashSet<Class<?>>();
+        for (Entry entry : entries) {
+            if (!entry.isMethod()) {
+                classes.add(Class.forName(entry.getClassName(), false, classLoader));
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Resolves the methods annotated with {@link Bean} listed in the index. All overloads of an indexed method that are
+     * annotated with {@link Bean} are returned.
+     *
+     * @param classLoader Class loader to load the declaring classes with
+     *
+     * @return Set of annotated methods
+     *
+     * @throws ClassNotFoundException if a declaring class cannot be loaded
+     */
+    public Set<Method> getAnnotatedMethods(ClassLoader classLoader) throws ClassNotFoundException {
+        final var methods = new LinkedHashSet<Method>();
+        for (Entry entry : entries) {
+            if (entry.isMethod()) {
+                final var declaringClass = Class.forName(entry.getClassName(), false, classLoader);
+                for (Method method : ClassMetadata.of(declaringClass).getBeanMethods()) {
+                    if (method.getName().equals(entry.getMethodName())) {
+                        methods.add(method);
+                    }
+                }
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Checks if the index has no entries.
+     *
+     * @return True if there are no entries, false otherwise
+     */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Single entry of the bean index.
+     */
+    @Data
+    public static final class Entry {
+
+        /**
+         * Binary name of the annotated class or of the method's declaring class.
+         */
+        private final String className;
+
+        /**
+         * Name of the annotated method, null for class entries.
+         */
+        private final String methodName;
+
+        /**
+         * Name of the bean, empty string if not specified.
+         */
+        private final String beanName;
+
+        /**
+         * Checks if the entry represents a method bean.
+         *
+         * @return True if method bean, false if class bean
+         */
+        public boolean isMethod() {
+            return methodName != null;
+        }
+
+        /**
+         * Parses a line of the bean index.
+         *
+         * @param line Line to parse
+         *
+         * @return Entry or null if the line is empty, a comment, or malformed
+         */
+        static Entry parse(String line) {
+            if (line.isBlank() || line.startsWith("#")) {
+                return null;
+            }
+
+            final var columns = line.split("\t", -1);
+            if (columns[0].equals("class") && columns.length == 3) {
+                return new Entry(columns[1], null, columns[2]);
+            } else if (columns[0].equals("method") && columns.length == 4) {
+                return new Entry(columns[1], columns[2], columns[3]);
+            }
+
+            log.warn("Skipping malformed bean index line '{}'", line);
+            return null;
+        }
+    }
+}
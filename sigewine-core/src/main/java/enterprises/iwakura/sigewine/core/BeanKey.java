@@ -0,0 +1,77 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Immutable, interned key of a bean, made of its type and name.
+ * <p>
+ * Keys are interned per type in a {@link ClassValue}, so there is exactly one key instance for each type and name.
+ * Getting an existing key does not allocate, equality is identity and the hash is computed only once, which makes the
+ * keys cheap to use in the registry's indexes.
+ * </p>
+ */
+@Getter
+public final class BeanKey {
+
+    private static final ClassValue<Map<String, BeanKey>> KEYS = new ClassValue<>() {
+        @Override
+        protected Map<String, BeanKey> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Type of the bean.
+     */
+    private final Class<?> type;
+
+    /**
+     * Name of the bean, empty string if the bean is not named.
+     */
+    private final String name;
+
+    private final int hash;
+
+    private BeanKey(Class<?> type, String name) {
+        this.type = type;
+        this.name = name;
+        this.hash = 31 * type.hashCode() + name.hashCode();
+    }
+
+    /**
+     * Gets the interned key of the type and name.
+     *
+     * @param type Type of the bean
+     * @param name Name of the bean, null is treated as an empty string
+     *
+     * @return Interned bean key
+     */
+    public static BeanKey of(@NonNull Class<?> type, String name) {
+        final var keys = KEYS.get(type);
+        final var beanName = name == null ? "" : name;
+        final var key = keys.get(beanName);
+        if (key != null) {
+            return key;
+        }
+        return keys.computeIfAbsent(beanName, ignored -> new BeanKey(type, beanName));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return this == object;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanKey(" + type.getName() + (name.isEmpty() ? "" : ", '" + name + "'") + ")";
+    }
+}
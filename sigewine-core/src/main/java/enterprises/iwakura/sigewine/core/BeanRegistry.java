@@ -0,0 +1,457 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Indexed registry of beans.
+ * <p>
+ * Every registered bean is indexed under each of its supertypes and interfaces (including its own class), both by type
+ * alone and by interned (type, name) {@link BeanKey}. This makes every lookup a single hash map read, regardless of
+ * how many beans are registered. The lookup semantics match {@link BeanDefinition#is(BeanDefinition, boolean)}: a registered bean matches
+ * the queried definition if its class is assignable to the queried class and the names match. When more than one bean
+ * matches, the bean that was registered first is returned.
+ * </p>
+ * <p>
+ * Until the registry is {@link #seal() sealed}, all operations are guarded by the registry's monitor. Sealing replaces
+ * the indexes with immutable copies and publishes them through a volatile write, after which all reads are lock-free
+ * and any registration attempt fails.
+ * </p>
+ * <p>
+ * Lazy singleton beans and beans of other scopes are registered as {@link ScopedBean} holders and indexed by the class
+ * of their bean definition. Lookups get their instances from the holders, outside the registry's monitor.
+ * </p>
+ */
+public class BeanRegistry {
+
+    /**
+     * Registered beans in the registration order.
+     */
+    protected Map<BeanDefinition, Object> beans = new LinkedHashMap<>();
+
+    /**
+     * Index of beans by (supertype, name) pair. Used for lookups requiring exact name match.
+     */
+    protected Map<BeanKey, List<RegisteredBean>> typeNameIndex = new HashMap<>();
+
+    /**
+     * Index of beans by supertype, regardless of their name. Used for lookups of unnamed bean definitions.
+     */
+    protected Map<Class<?>, List<RegisteredBean>> typeIndex = new HashMap<>();
+
+    /**
+     * Index of beans by their name.
+     */
+    protected Map<String, List<RegisteredBean>> nameIndex = new HashMap<>();
+
+    /**
+     * Index of distinct bean instances by every supertype of their runtime class. Instances are compared by identity.
+     */
+    protected Map<Class<?>, List<Object>> assignableIndex = new HashMap<>();
+
+    /**
+     * Identity set of all registered bean instances.
+     */
+    protected Map<Object, Boolean> registeredInstances = new IdentityHashMap<>();
+
+    /**
+     * Whether any {@link ScopedBean} is registered.
+     */
+    protected boolean scopedBeans;
+
+    /**
+     * Whether the registry is sealed. Written after the immutable indexes, so reading true guarantees their visibility.
+     */
+    @Getter
+    protected volatile boolean sealed;
+
+    /**
+     * Version of the registry, incremented on every registration. Lets memoized lookups detect that they may be stale.
+     */
+    @Getter
+    protected volatile long version;
+
+    /**
+     * Registers the bean instance under the bean definition and indexes it by all of its supertypes. The instance may
+     * be a {@link ScopedBean}, which is indexed by the class of the bean definition and provides the instance on every
+     * lookup.
+     *
+     * @param beanDefinition Bean definition
+     * @param instance       Instance of the bean or scoped bean holder
+     *
+     * @throws IllegalArgumentException if a bean with the same name assignable to the definition's class is already
+     *                                  registered
+     * @throws IllegalStateException    if the registry is sealed
+     */
+    public synchronized void register(@NonNull BeanDefinition beanDefinition, @NonNull Object instance) {
+        if (sealed) {
+            throw new IllegalStateException("Bean registry is sealed, cannot register " + beanDefinition);
+        }
+
+        if (findInternal(beanDefinition, true) != null) {
+            throw new IllegalArgumentException("Class " + instance.getClass().getName() + " already registered as " + beanDefinition);
+        }
+
+        version++;
+        final var registeredBean = new RegisteredBean(beanDefinition, instance, beans.size());
+        final var name = beanDefinition.getName();
+        beans.put(beanDefinition, instance);
+        nameIndex.computeIfAbsent(name, key -> new ArrayList<>(1)).add(registeredBean);
+
+        for (Class<?> supertype : getSupertypes(beanDefinition.getClazz())) {
+            typeIndex.computeIfAbsent(supertype, key -> new ArrayList<>(1)).add(registeredBean);
+            typeNameIndex.computeIfAbsent(BeanKey.of(supertype, name), key -> new ArrayList<>(1)).add(registeredBean);
+        }
+
+        if (instance instanceof ScopedBean) {
+            scopedBeans = true;
+        }
+
+        if (registeredInstances.put(instance, Boolean.TRUE) == null) {
+            // Runtime class of a scoped bean is not known until it is created
+            final var instanceClass = instance instanceof ScopedBean ? beanDefinition.getClazz() : instance.getClass();
+            for (Class<?> supertype : getSupertypes(instanceClass)) {
+                assignableIndex.computeIfAbsent(supertype, key -> new ArrayList<>(1)).add(instance);
+            }
+        }
+    }
+
+    /**
+     * Checks if any registered bean matches the bean definition.
+     *
+     * @param beanDefinition Bean definition to check
+     * @param exactNameMatch Whether the names must match exactly (true) or unnamed beans match any name (false)
+     *
+     * @return True if a matching bean is registered, false otherwise
+     */
+    public boolean contains(BeanDefinition beanDefinition, boolean exactNameMatch) {
+        return findRegistered(beanDefinition, exactNameMatch) != null;
+    }
+
+    /**
+     * Finds the first registered bean that matches the bean definition. Instances of scoped beans are provided by their scopes.
+     *
+     * @param beanDefinition Bean definition to look for
+     * @param exactNameMatch Whether the names must match exactly (true) or unnamed beans match any name (false)
+     *
+     * @return The bean instance, or null if no bean matches
+     */
+    public Object find(BeanDefinition beanDefinition, boolean exactNameMatch) {
+        // Scoped beans are created outside the registry's monitor, as their creation looks up other beans
+        return ScopedBean.resolve(findRegistered(beanDefinition, exactNameMatch));
+    }
+
+    /**
+     * Finds the first registered bean that matches the bean definition, without resolving scoped beans.
+     *
+     * @param beanDefinition Bean definition to look for
+     * @param exactNameMatch Whether the names must match exactly
+     *
+     * @return The bean instance or scoped bean holder, or null if no bean matches
+     */
+    protected Object findRegistered(BeanDefinition beanDefinition, boolean exactNameMatch) {
+        if (sealed) {
+            return findInternal(beanDefinition, exactNameMatch);
+        }
+        synchronized (this) {
+            return findInternal(beanDefinition, exactNameMatch);
+        }
+    }
+
+    /**
+     * Finds the first registered bean that matches the bean definition. Caller must hold the registry's monitor unless
+     * the registry is sealed.
+     *
+     * @param beanDefinition Bean definition to look for
+     * @param exactNameMatch Whether the names must match exactly
+     *
+     * @return The bean instance, or null if no bean matches
+     */
+    protected Object findInternal(BeanDefinition beanDefinition, boolean exactNameMatch) {
+        if (beanDefinition == null) {
+            return null;
+        }
+
+        final var clazz = beanDefinition.getClazz();
+
+        if (exactNameMatch) {
+            return first(typeNameIndex.get(beanDefinition.getKey()));
+        }
+
+        if (!beanDefinition.hasName()) {
+            // Unnamed definition matches beans of any name
+            return first(typeIndex.get(clazz));
+        }
+
+        // Named definition matches beans with the same name or unnamed beans, whichever was registered first
+        final var named = typeNameIndex.get(beanDefinition.getKey());
+        final var unnamed = typeNameIndex.get(BeanKey.of(clazz, ""));
+        if (named == null || named.isEmpty()) {
+            return first(unnamed);
+        }
+        if (unnamed == null || unnamed.isEmpty()) {
+            return first(named);
+        }
+        return named.get(0).order() < unnamed.get(0).order() ? named.get(0).instance() : unnamed.get(0).instance();
+    }
+
+    /**
+     * Gets all bean instances registered under the specified name. Instances of scoped beans are provided by their
+     * scopes.
+     *
+     * @param name Name of the beans
+     *
+     * @return List of bean instances in the registration order
+     */
+    public List<Object> getBeansByName(String name) {
+        final List<Object> instances;
+        final boolean anyScopedBeans;
+        if (!sealed) {
+            synchronized (this) {
+                instances = instancesOf(nameIndex.get(name));
+                anyScopedBeans = scopedBeans;
+            }
+        } else {
+            instances = instancesOf(nameIndex.get(name));
+            anyScopedBeans = scopedBeans;
+        }
+        return resolveAll(instances, anyScopedBeans);
+    }
+
+    /**
+     * Gets all distinct bean instances whose runtime class is assignable to the specified class. Instances are compared
+     * by identity, so their {@code equals} and {@code hashCode} methods are never called. The cost is proportional to the
+     * number of returned beans. Instances of scoped beans whose class is assignable to the specified class are provided by
+     * their scopes.
+     *
+     * @param clazz Class the beans must be assignable to
+     *
+     * @return Immutable list of bean instances in the registration order
+     */
+    public List<Object> getBeansAssignableTo(Class<?> clazz) {
+        final List<Object> instances;
+        final boolean anyScopedBeans;
+        if (!sealed) {
+            synchronized (this) {
+                final var assignableInstances = assignableIndex.get(clazz);
+                instances = assignableInstances == null ? List.of() : List.copyOf(assignableInstances);
+                anyScopedBeans = scopedBeans;
+            }
+        } else {
+            instances = assignableIndex.getOrDefault(clazz, List.of());
+            anyScopedBeans = scopedBeans;
+        }
+        // Scoped beans are created outside the registry's monitor, as their creation looks up other beans
+        return resolveAll(instances, anyScopedBeans);
+    }
+
+    /**
+     * Resolves the scoped beans in the list if there are any registered.
+     *
+     * @param instances      Bean instances or scoped bean holders
+     * @param anyScopedBeans Whether any scoped beans are registered
+     *
+     * @return Immutable list of bean instances
+     */
+    private static List<Object> resolveAll(List<Object> instances, boolean anyScopedBeans) {
+        if (!anyScopedBeans) {
+            return instances;
+        }
+        return instances.stream().map(ScopedBean::resolve).toList();
+    }
+
+    /**
+     * Gets unmodifiable view of all registered singleton beans in the registration order, excluding scoped beans (see
+     * {@link ScopedBean}). Until the registry is sealed, the view must not be iterated concurrently with registrations.
+     * If any scoped beans are registered, a snapshot is returned instead of a view.
+     *
+     * @return Map of bean definitions to bean instances
+     */
+    public Map<BeanDefinition, Object> getBeans() {
+        if (!sealed) {
+            synchronized (this) {
+                return scopedBeans ? singletonBeans(beans) : Collections.unmodifiableMap(beans);
+            }
+        }
+        return scopedBeans ? singletonBeans(beans) : beans;
+    }
+
+    /**
+     * Gets the bean registered under exactly the bean definition.
+     *
+     * @param beanDefinition Bean definition the bean was registered under
+     *
+     * @return The bean instance or scoped bean holder, or null if none is registered under the bean definition
+     */
+    public Object get(BeanDefinition beanDefinition) {
+        if (!sealed) {
+            synchronized (this) {
+                return beans.get(beanDefinition);
+            }
+        }
+        return beans.get(beanDefinition);
+    }
+
+    /**
+     * Gets scoped bean holders in the registration order.
+     *
+     * @return List of scoped bean holders
+     */
+    public synchronized List<ScopedBean> getScopedBeans() {
+        //@formatter:off
+        return beans.values().stream()
+                .filter(ScopedBean.class::isInstance)
+                .map(ScopedBean.class::cast)
+                .toList();
+        //@formatter:on
+    }
+
+    /**
+     * Copies the beans, excluding scoped beans.
+     *
+     * @param beans Beans to copy
+     *
+     * @return Unmodifiable map of beans
+     */
+    private static Map<BeanDefinition, Object> singletonBeans(Map<BeanDefinition, Object> beans) {
+        final var singletonBeans = new LinkedHashMap<BeanDefinition, Object>();
+        beans.forEach((beanDefinition, instance) -> {
+            if (!(instance instanceof ScopedBean)) {
+                singletonBeans.put(beanDefinition, instance);
+            }
+        });
+        return Collections.unmodifiableMap(singletonBeans);
+    }
+
+    /**
+     * Gets the number of registered beans.
+     *
+     * @return Number of registered beans
+     */
+    public int size() {
+        if (!sealed) {
+            synchronized (this) {
+                return beans.size();
+            }
+        }
+        return beans.size();
+    }
+
+    /**
+     * Seals the registry. Replaces all indexes with immutable copies and publishes them, so all subsequent reads are
+     * lock-free. Any registration attempt after sealing throws {@link IllegalStateException}. Sealing an already sealed
+     * registry does nothing.
+     */
+    public synchronized void seal() {
+        if (sealed) {
+            return;
+        }
+
+        beans = Collections.unmodifiableMap(new LinkedHashMap<>(beans));
+        typeNameIndex = freeze(typeNameIndex);
+        typeIndex = freeze(typeIndex);
+        nameIndex = freeze(nameIndex);
+        final var frozenAssignableIndex = new HashMap<Class<?>, List<Object>>(assignableIndex.size() * 2);
+        assignableIndex.forEach((clazz, instances) -> frozenAssignableIndex.put(clazz, List.copyOf(instances)));
+        assignableIndex = Map.copyOf(frozenAssignableIndex);
+        sealed = true;
+    }
+
+    /**
+     * Creates an immutable copy of the index.
+     *
+     * @param index Index to copy
+     * @param <K>   Type of the index key
+     *
+     * @return Immutable copy of the index
+     */
+    private static <K> Map<K, List<RegisteredBean>> freeze(Map<K, List<RegisteredBean>> index) {
+        final var frozen = new HashMap<K, List<RegisteredBean>>(index.size() * 2);
+        index.forEach((key, registeredBeans) -> frozen.put(key, List.copyOf(registeredBeans)));
+        return Map.copyOf(frozen);
+    }
+
+    /**
+     * Maps the registered beans to their instances.
+     *
+     * @param registeredBeans List of registered beans, may be null
+     *
+     * @return List of bean instances
+     */
+    private static List<Object> instancesOf(List<RegisteredBean> registeredBeans) {
+        if (registeredBeans == null) {
+            return List.of();
+        }
+        return registeredBeans.stream().map(RegisteredBean::instance).toList();
+    }
+
+    /**
+     * Returns the instance of the first registered bean in the list.
+     *
+     * @param registeredBeans List of registered beans, may be null
+     *
+     * @return The instance or null if the list is null or empty
+     */
+    private static Object first(List<RegisteredBean> registeredBeans) {
+        if (registeredBeans == null || registeredBeans.isEmpty()) {
+            return null;
+        }
+        return registeredBeans.get(0).instance();
+    }
+
+    /**
+     * Gets the class itself, all of its superclasses and all of its interfaces. For array classes, the array classes of
+     * the component's supertypes are included as well.
+     *
+     * @param clazz Class to get the supertypes of
+     *
+     * @return Set of supertypes
+     */
+    static Set<Class<?>> getSupertypes(Class<?> clazz) {
+        final var supertypes = new LinkedHashSet<Class<?>>();
+        collectSupertypes(clazz, supertypes);
+
+        if (clazz.isArray() && !clazz.getComponentType().isPrimitive()) {
+            for (Class<?> componentSupertype : getSupertypes(clazz.getComponentType())) {
+                supertypes.add(Array.newInstance(componentSupertype, 0).getClass());
+            }
+        }
+
+        return supertypes;
+    }
+
+    private static void collectSupertypes(Class<?> clazz, Set<Class<?>> supertypes) {
+        if (clazz == null || !supertypes.add(clazz)) {
+            return;
+        }
+        collectSupertypes(clazz.getSuperclass(), supertypes);
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            collectSupertypes(anInterface, supertypes);
+        }
+        if (clazz.isInterface()) {
+            supertypes.add(Object.class);
+        }
+    }
+
+    /**
+     * Registered bean entry.
+     *
+     * @param definition Bean definition the bean was registered with
+     * @param instance   Instance of the bean
+     * @param order      Registration order of the bean
+     */
+    protected record RegisteredBean(BeanDefinition definition, Object instance, int order) {
+
+    }
+}
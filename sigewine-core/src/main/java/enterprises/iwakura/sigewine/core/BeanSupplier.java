@@ -0,0 +1,88 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.util.function.Supplier;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Memoized supplier of a bean, e.g. for {@link enterprises.iwakura.sigewine.core.utils.BeanAccessor} or constructor
+ * parameters of type {@link Supplier}.
+ * <p>
+ * The bean is looked up in the registry on the first call only. The instance is then published through a volatile
+ * field together with the registry's version (see {@link BeanRegistry#getVersion()}), so later calls cost two volatile
+ * reads. The instance is looked up again only if any bean was registered since. Scoped beans are provided by their
+ * scopes on every call, and classes that are not registered as beans are injected on every call, as
+ * {@link Sigewine#inject(BeanDefinition)} does.
+ * </p>
+ *
+ * @param <T> Type of the bean
+ */
+public class BeanSupplier<T> implements Supplier<T> {
+
+    private final Sigewine sigewine;
+
+    /**
+     * Class of the bean.
+     */
+    @Getter
+    private final Class<T> clazz;
+
+    /**
+     * Definition of the supplied bean.
+     */
+    @Getter
+    private final BeanDefinition beanDefinition;
+
+    /**
+     * Memoized instance, null until the bean is first looked up.
+     */
+    private volatile Memo<T> memo;
+
+    /**
+     * Creates a supplier of the bean.
+     *
+     * @param sigewine Sigewine instance to look up the bean in
+     * @param clazz    Class of the bean
+     * @param beanName Name of the bean, may be null or empty
+     */
+    public BeanSupplier(@NonNull Sigewine sigewine, @NonNull Class<T> clazz, String beanName) {
+        this.sigewine = sigewine;
+        this.clazz = clazz;
+        this.beanDefinition = BeanDefinition.of(clazz, beanName);
+    }
+
+    @Override
+    public T get() {
+        // Version is read before the lookup, so registrations made meanwhile invalidate the memoized instance
+        final var version = sigewine.getBeanRegistry().getVersion();
+        final var memo = this.memo;
+        if (memo != null && memo.version() == version) {
+            return memo.instance();
+        }
+
+        final var bean = sigewine.getBeanRegistry().findRegistered(beanDefinition, true);
+        if (bean == null || bean instanceof ScopedBean) {
+            return clazz.cast(sigewine.inject(beanDefinition));
+        }
+
+        final var instance = clazz.cast(bean);
+        this.memo = new Memo<>(instance, version);
+        return instance;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanSupplier(" + beanDefinition + ")";
+    }
+
+    /**
+     * Memoized instance of the bean.
+     *
+     * @param instance Instance of the bean
+     * @param version  Version of the registry when the instance was looked up
+     */
+    private record Memo<T>(T instance, long version) {
+
+    }
+}
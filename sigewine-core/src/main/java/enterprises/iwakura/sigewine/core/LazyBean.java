@@ -0,0 +1,141 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Provider of a lazy singleton bean, creating its instance when the bean is first used.
+ * <p>
+ * The instance is created by the first call to {@link #get()} using double-checked locking. Once created, reading the
+ * instance is a single volatile read, so concurrent access does not contend, and concurrent first access creates
+ * exactly one instance. The created instance is passed to the initializer (e.g. to inject its fields) before it is
+ * published to other threads. While the initializer runs, the thread creating the instance already gets it from
+ * {@link #get()}, so beans referring to each other through fields can be initialized.
+ * </p>
+ * <p>
+ * Instances are created under an initialization lock shared by the providers of beans that may refer to each other,
+ * e.g. all lazy singletons of a container. Creating a bean may create the beans it refers to, so with a lock per
+ * provider, two threads creating two beans referring to each other would wait for each other forever. The lock is a
+ * {@link ReentrantLock}, so virtual threads creating instances are not pinned to their carrier threads.
+ * </p>
+ */
+public class LazyBean implements Supplier<Object> {
+
+    /**
+     * Definition of the lazy bean.
+     */
+    @Getter
+    private final BeanDefinition beanDefinition;
+
+    /**
+     * Lock the instance is created under, shared with the providers of beans it may refer to.
+     */
+    private final ReentrantLock initializationLock;
+
+    /**
+     * Factory creating the instance, released once the instance is created.
+     */
+    private Supplier<?> factory;
+
+    /**
+     * Initializer of the created instance, released once the instance is created.
+     */
+    private Consumer<Object> initializer;
+
+    /**
+     * Instance being initialized, only accessed under the initialization lock.
+     */
+    private Object initializingInstance;
+
+    /**
+     * Instance of the bean, null until created.
+     */
+    private volatile Object instance;
+
+    /**
+     * Creates a provider of a lazy singleton bean with its own initialization lock. Providers of beans that may refer to
+     * each other must share their lock, see
+     * {@link #LazyBean(BeanDefinition, Supplier, Consumer, ReentrantLock)}.
+     *
+     * @param beanDefinition Definition of the lazy bean
+     * @param factory        Factory creating the instance
+     * @param initializer    Initializer of the created instance
+     */
+    public LazyBean(@NonNull BeanDefinition beanDefinition, @NonNull Supplier<?> factory, @NonNull Consumer<Object> initializer) {
+        this(beanDefinition, factory, initializer, new ReentrantLock());
+    }
+
+    /**
+     * Creates a provider of a lazy singleton bean.
+     *
+     * @param beanDefinition     Definition of the lazy bean
+     * @param factory            Factory creating the instance
+     * @param initializer        Initializer of the created instance
+     * @param initializationLock Lock the instance is created under, shared with the providers of beans it may refer to
+     */
+    public LazyBean(@NonNull BeanDefinition beanDefinition, @NonNull Supplier<?> factory, @NonNull Consumer<Object> initializer,
+                    @NonNull ReentrantLock initializationLock) {
+        this.beanDefinition = beanDefinition;
+        this.initializationLock = initializationLock;
+        this.factory = factory;
+        this.initializer = initializer;
+    }
+
+    /**
+     * Gets the instance of the bean, creating it on first call.
+     *
+     * @return Instance of the bean
+     *
+     * @throws IllegalStateException if the factory returns null
+     */
+    @Override
+    public Object get() {
+        var result = instance;
+        if (result == null) {
+            initializationLock.lock();
+            try {
+                result = instance;
+                if (result == null && initializingInstance != null) {
+                    // Re-entered by the initializer
+                    return initializingInstance;
+                }
+                if (result == null) {
+                    result = factory.get();
+                    if (result == null) {
+                        throw new IllegalStateException("Factory of lazy bean " + beanDefinition + " returned null");
+                    }
+                    initializingInstance = result;
+                    try {
+                        initializer.accept(result);
+                    } finally {
+                        initializingInstance = null;
+                    }
+                    instance = result;
+                    factory = null;
+                    initializer = null;
+                }
+            } finally {
+                initializationLock.unlock();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the instance of the bean was already created.
+     *
+     * @return True if created, false otherwise
+     */
+    public boolean isCreated() {
+        return instance != null;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyBean(" + beanDefinition + (isCreated() ? ", created" : "") + ")";
+    }
+}
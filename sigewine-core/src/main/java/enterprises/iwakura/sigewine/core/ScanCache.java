@@ -0,0 +1,275 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.reflections.util.ClasspathHelper;
+
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistent cache of scan results, storing the sorted bean definitions of a scanned package in a compact binary file.
+ * <p>
+ * Each cache file is keyed by a fingerprint of the classpath entries containing the package, computed from the sizes
+ * and modification times of their files. When the fingerprint matches, the bean definitions are read from the
+ * memory-mapped file in their instantiation order, so neither the classpath scan nor the sorting is repeated. Any
+ * mismatch or unreadable file is treated as a cache miss.
+ * </p>
+ * <p>
+ * The file consists of a magic number, format version, fingerprint and the number of entries, followed by the entries.
+ * Each entry is a kind byte ({@code 0} for class beans, {@code 1} for method beans), the binary class name and, for
+ * method beans, the method name and the binary names of its parameter types. Strings are stored as UTF-8 bytes
+ * prefixed by their length.
+ * </p>
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class ScanCache {
+
+    private static final int MAGIC = 0x53474e43;
+    private static final int VERSION = 1;
+    private static final byte CLASS_BEAN = 0;
+    private static final byte METHOD_BEAN = 1;
+
+    /**
+     * Directory holding the cache files.
+     */
+    private final @NonNull Path directory;
+
+    /**
+     * Computes the fingerprint of the classpath entries containing the package.
+     *
+     * @param packageName Name of the package
+     * @param classLoader Class loader to find the classpath entries with
+     *
+     * @return Fingerprint of the classpath entries
+     *
+     * @throws IOException if the files cannot be read
+     */
+    public static byte[] fingerprint(String packageName, ClassLoader classLoader) throws IOException {
+        return fingerprint(ClasspathHelper.forPackage(packageName, classLoader));
+    }
+
+    /**
+     * Computes the fingerprint of the classpath entries. Directories are walked, so a change to any file within them
+     * changes the fingerprint.
+     *
+     * @param urls URLs of the classpath entries
+     *
+     * @return Fingerprint of the classpath entries
+     *
+     * @throws IOException if the files cannot be read
+     */
+    public static byte[] fingerprint(Collection<URL> urls) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+
+        for (URL url : urls.stream().sorted(Comparator.comparing(URL::toExternalForm)).toList()) {
+            digest.update(url.toExternalForm().getBytes(StandardCharsets.UTF_8));
+            final var path = toPath(url);
+
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> files = Files.walk(path)) {
+                    for (Path file : files.filter(Files::isRegularFile).sorted(Comparator.naturalOrder()).toList()) {
+                        digest.update(path.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                        update(digest, Files.readAttributes(file, BasicFileAttributes.class));
+                    }
+                }
+            } else {
+                update(digest, Files.readAttributes(path, BasicFileAttributes.class));
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Loads the sorted bean definitions of the package if the cache file exists and matches the fingerprint.
+     *
+     * @param packageName Name of the scanned package
+     * @param classLoader Class loader to load the bean classes with
+     * @param fingerprint Current fingerprint of the classpath entries
+     *
+     * @return Sorted bean definitions, or null on a cache miss
+     */
+    public List<BeanDefinition> load(String packageName, ClassLoader classLoader, byte[] fingerprint) {
+        final var file = getFile(packageName);
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                log.debug("Scan cache '{}' has unknown format", file);
+                return null;
+            }
+
+            final var storedFingerprint = new byte[buffer.getInt()];
+            buffer.get(storedFingerprint);
+            if (!Arrays.equals(storedFingerprint, fingerprint)) {
+                log.debug("Scan cache '{}' does not match the classpath", file);
+                return null;
+            }
+
+            final var size = buffer.getInt();
+            final var beanDefinitions = new ArrayList<BeanDefinition>(size);
+            for (int i = 0; i < size; i++) {
+                beanDefinitions.add(readEntry(buffer, classLoader));
+            }
+            return beanDefinitions;
+        } catch (NoSuchFileException exception) {
+            log.debug("Scan cache '{}' does not exist", file);
+            return null;
+        } catch (Exception exception) {
+            log.debug("Failed to read scan cache '{}'", file, exception);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the sorted bean definitions of the package, replacing the cache file atomically.
+     *
+     * @param packageName           Name of the scanned package
+     * @param fingerprint           Fingerprint of the classpath entries
+     * @param sortedBeanDefinitions Bean definitions in their instantiation order
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void store(String packageName, byte[] fingerprint, List<BeanDefinition> sortedBeanDefinitions) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(fingerprint.length);
+            output.write(fingerprint);
+            output.writeInt(sortedBeanDefinitions.size());
+            for (BeanDefinition beanDefinition : sortedBeanDefinitions) {
+                writeEntry(output, beanDefinition);
+            }
+        }
+
+        final var file = getFile(packageName);
+        Files.createDirectories(directory);
+        final var temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, bytes.toByteArray());
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        log.debug("Stored '{}' bean definitions of package '{}' into scan cache '{}'", sortedBeanDefinitions.size(), packageName, file);
+    }
+
+    /**
+     * Gets the cache file of the package.
+     *
+     * @param packageName Name of the scanned package
+     *
+     * @return Path of the cache file
+     */
+    public Path getFile(String packageName) {
+        return directory.resolve((packageName.isEmpty() ? "_root" : packageName) + ".scan");
+    }
+
+    private static Path toPath(URL url) throws IOException {
+        var externalForm = url.toExternalForm();
+        if (externalForm.startsWith("jar:")) {
+            // Entry within a jar, e.g. jar:file:/app/lib/beans.jar!/
+            final var separator = externalForm.indexOf("!/");
+            externalForm = externalForm.substring("jar:".length(), separator != -1 ? separator : externalForm.length());
+        }
+        try {
+            return Path.of(URI.create(externalForm));
+        } catch (IllegalArgumentException | FileSystemNotFoundException exception) {
+            throw new IOException("Classpath entry " + url + " is not a file", exception);
+        }
+    }
+
+    private static void update(MessageDigest digest, BasicFileAttributes attributes) {
+        digest.update(ByteBuffer.allocate(Long.BYTES * 2)
+            .putLong(attributes.size())
+            .putLong(attributes.lastModifiedTime().toMillis())
+            .array());
+    }
+
+    private static void writeEntry(DataOutputStream output, BeanDefinition beanDefinition) throws IOException {
+        final var method = beanDefinition.getMethod();
+        if (method == null) {
+            output.writeByte(CLASS_BEAN);
+            writeString(output, beanDefinition.getClazz().getName());
+            return;
+        }
+
+        output.writeByte(METHOD_BEAN);
+        writeString(output, method.getDeclaringClass().getName());
+        writeString(output, method.getName());
+        output.writeInt(method.getParameterCount());
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            writeString(output, parameterType.getName());
+        }
+    }
+
+    private static BeanDefinition readEntry(ByteBuffer buffer, ClassLoader classLoader) throws ReflectiveOperationException {
+        final var kind = buffer.get();
+        final var clazz = Class.forName(readString(buffer), false, classLoader);
+        if (kind == CLASS_BEAN) {
+            return BeanDefinition.of(clazz);
+        }
+        if (kind != METHOD_BEAN) {
+            throw new IllegalStateException("Unknown scan cache entry kind " + kind);
+        }
+
+        final var methodName = readString(buffer);
+        final var parameterTypeNames = new String[buffer.getInt()];
+        for (int i = 0; i < parameterTypeNames.length; i++) {
+            parameterTypeNames[i] = readString(buffer);
+        }
+        for (Method method : ClassMetadata.of(clazz).getBeanMethods()) {
+            if (method.getName().equals(methodName)
+                && Arrays.equals(Arrays.stream(method.getParameterTypes()).map(Class::getName).toArray(), parameterTypeNames)) {
+                return BeanDefinition.of(method);
+            }
+        }
+        throw new NoSuchMethodException(clazz.getName() + "#" + methodName);
+    }
+
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        final var bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
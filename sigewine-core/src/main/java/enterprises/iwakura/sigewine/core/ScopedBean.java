@@ -0,0 +1,58 @@
+package enterprises.iwakura.sigewine.core;
+
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Holder of a bean whose instances are provided by its {@link BeanScope}, registered in place of an instance. This is
+ * the case for lazy singleton beans and beans of all other scopes. Every lookup of the bean gets its instance from the
+ * provider.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ScopedBean {
+
+    /**
+     * Definition of the bean.
+     */
+    private final @NonNull BeanDefinition beanDefinition;
+
+    /**
+     * Scope of the bean.
+     */
+    private final @NonNull BeanScope scope;
+
+    /**
+     * Provider of the bean's instances created by the scope.
+     */
+    private final @NonNull Supplier<Object> provider;
+
+    /**
+     * Gets the instance of the bean from the provider.
+     *
+     * @return Instance of the bean
+     */
+    public Object get() {
+        return provider.get();
+    }
+
+    /**
+     * Gets the instance if the object is a scoped bean holder, otherwise returns the object.
+     *
+     * @param object Bean instance or scoped bean holder
+     *
+     * @return Bean instance
+     */
+    static Object resolve(Object object) {
+        return object instanceof ScopedBean scopedBean ? scopedBean.get() : object;
+    }
+
+    @Override
+    public String toString() {
+        return "ScopedBean(" + beanDefinition + ", " + scope.getName() + ")";
+    }
+}
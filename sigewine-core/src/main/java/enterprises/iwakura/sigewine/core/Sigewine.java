@@ -1,10 +1,16 @@
 package enterprises.iwakura.sigewine.core;
 
 import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.aot.GeneratedContext;
 import enterprises.iwakura.sigewine.core.extension.InjectBeanExtension;
 import enterprises.iwakura.sigewine.core.extension.SigewineExtension;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+import enterprises.iwakura.sigewine.core.scope.PrototypeScope;
+import enterprises.iwakura.sigewine.core.scope.RequestScope;
+import enterprises.iwakura.sigewine.core.scope.SingletonScope;
+import enterprises.iwakura.sigewine.core.utils.BeanAccessor;
 import enterprises.iwakura.sigewine.core.utils.Preconditions;
-import enterprises.iwakura.sigewine.core.utils.ReflectionUtil;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -16,7 +22,16 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Main entry point to the Sigewine Dependency Injection (DI) API.
@@ -34,6 +49,7 @@ import java.util.*;
  *   <li>Instantiate {@link Sigewine} with the options.</li>
  *   <li>Use {@link #scan(Class)} or {@link #scan(String, ClassLoader)} to scan packages for beans.</li>
  *   <li>Use {@link #inject(Class)} to inject dependencies into a class.</li>
+ *   <li>Optionally, use {@link #seal()} once all beans are registered to make lookups lock-free.</li>
  * </ol>
  */
 @Getter
@@ -41,27 +57,79 @@ import java.util.*;
 @Slf4j
 public class Sigewine {
 
+    /**
+     * Stable order of bean definitions that do not depend on each other.
+     */
+    protected static final Comparator<BeanDefinition> BEAN_DEFINITION_ORDER = Comparator
+        .comparing((BeanDefinition beanDefinition) -> beanDefinition.getClazz().getName())
+        .thenComparing(beanDefinition -> beanDefinition.getMethod() != null ? beanDefinition.getMethod().toString() : "")
+        .thenComparing(BeanDefinition::getName);
+
     /**
      * Sigewine options.
      */
     protected final SigewineOptions sigewineOptions;
     /**
-     * List of extensions to extend the functionality of Sigewine.
+     * List of extensions to extend the functionality of Sigewine, sorted by their priority.
      */
     protected final List<SigewineExtension> extensions = new ArrayList<>(List.of());
     /**
-     * Map of beans registered in the DI container.
+     * Extensions interested in created instances of classes (see {@link SigewineExtension#isInterestedIn(Class)}),
+     * sorted by their priority. Cleared when an extension is added and when a scan starts.
      */
-    protected final Map<BeanDefinition, Object> singletonBeans = new HashMap<>();
+    @Getter(AccessLevel.NONE)
+    protected final Map<Class<?>, List<SigewineExtension>> extensionDispatchTable = new ConcurrentHashMap<>();
+    /**
+     * Indexed registry of beans registered in the DI container.
+     */
+    protected final BeanRegistry beanRegistry = new BeanRegistry();
     /**
      * Cache for method bean declaring classes.
      */
-    protected final Map<Class<?>, Object> methodBeanDeclaringClassCache = new HashMap<>();
+    protected final Map<Class<?>, Object> methodBeanDeclaringClassCache = new ConcurrentHashMap<>();
     /**
      * Map of original beans that are proxied. This is used to keep track of the original bean instances
      * when they are proxied by the AOP extension or any other extension that creates proxies.
      */
-    protected final Map<BeanDefinition, Object> proxiedOriginalBeans = new HashMap<>();
+    protected final Map<BeanDefinition, Object> proxiedOriginalBeans = new ConcurrentHashMap<>();
+    /**
+     * Registrations staged by the current thread while creating a bean in parallel, null otherwise.
+     */
+    @Getter(AccessLevel.NONE)
+    protected final ThreadLocal<List<StagedRegistration>> stagedRegistrations = new ThreadLocal<>();
+    /**
+     * Instances of scoped beans created while scanning, waiting to be processed by extensions once the scan finishes.
+     */
+    @Getter(AccessLevel.NONE)
+    protected final Queue<PendingScopedBean> pendingScopedBeans = new ConcurrentLinkedQueue<>();
+    /**
+     * Singleton beans registered since extensions last processed beans, passed to them at the end of the next scan.
+     */
+    @Getter(AccessLevel.NONE)
+    protected final Queue<BeanDefinition> unprocessedBeans = new ConcurrentLinkedQueue<>();
+    /**
+     * Memoized suppliers of beans injected by {@link #inject(Class)}, so injecting a registered singleton bean is a
+     * single map read without any allocation. Only classes with registered beans are memoized, so injecting other
+     * classes does not keep them and their class loaders reachable.
+     */
+    @Getter(AccessLevel.NONE)
+    protected final Map<Class<?>, BeanSupplier<?>> injectedBeans = new ConcurrentHashMap<>();
+    /**
+     * Memoized suppliers of beans injected by {@link #inject(Class, String)} with a bean name, by bean names. Only
+     * classes with registered beans are memoized, like in {@link #injectedBeans}.
+     */
+    @Getter(AccessLevel.NONE)
+    protected final Map<Class<?>, Map<String, BeanSupplier<?>>> injectedNamedBeans = new ConcurrentHashMap<>();
+    /**
+     * Scopes of beans by their names.
+     */
+    protected final Map<String, BeanScope> scopes = new ConcurrentHashMap<>();
+    /**
+     * Whether a scan is in progress.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    protected volatile boolean scanning;
     /**
      * Constructor for Sigewine.
      *
@@ -70,6 +138,7 @@ public class Sigewine {
     public Sigewine(SigewineOptions sigewineOptions) {
         this.sigewineOptions = sigewineOptions;
         addInternalExtensions();
+        addInternalScopes();
         registerItselfAsBean();
     }
 
@@ -93,6 +162,16 @@ public class Sigewine {
         addExtension(new InjectBeanExtension(sigewineOptions.getInjectBeanExtensionPriority()));
     }
 
+    /**
+     * Adds built-in scopes to the Sigewine instance, i.e. {@link SingletonScope}, {@link PrototypeScope} and
+     * {@link RequestScope}.
+     */
+    protected void addInternalScopes() {
+        addScope(new SingletonScope());
+        addScope(new PrototypeScope());
+        addScope(new RequestScope());
+    }
+
     /**
      * Registers the Sigewine instance itself as a bean.
      */
@@ -117,6 +196,8 @@ public class Sigewine {
      * <p>
      * This method performs the following steps:
      * <ol>
+     *     <li>Finds classes and methods annotated with {@link Bean} (or the extension of it), either from the compile-time
+     *     {@link BeanIndex} or by scanning the classpath.</li>
      *     <li>Scans for methods annotated with {@link Bean} (or the extension of it) and registers their return values as beans.</li>
      *     <li>Scans for classes annotated with {@link Bean} (or the extension of it) and registers them as beans.</li>
      *     <li>Injects beans into fields annotated by {@link Bean}</li>
@@ -124,59 +205,370 @@ public class Sigewine {
      *
      * @param packageName The package name to scan.
      * @param classLoader The class loader to use for scanning.
+     *
+     * @throws IllegalStateException if this Sigewine instance is sealed
      */
     @SneakyThrows
     public synchronized void scan(String packageName, ClassLoader classLoader) {
+        if (isSealed()) {
+            throw new IllegalStateException("Sigewine is sealed, cannot scan package '" + packageName + "'");
+        }
+
         log.info("Scanning package '{}' for classes annotated with @Bean", packageName);
 
-        ConfigurationBuilder config = new ConfigurationBuilder()
-                .setUrls(ClasspathHelper.forPackage(packageName, classLoader))
-                .setScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated)
-                .filterInputsBy(new FilterBuilder().includePackage(packageName));
-        config.setClassLoaders(new ClassLoader[] {classLoader});
-        final var reflections = new Reflections(config);
-        final var annotatedClasses = reflections.getTypesAnnotatedWith(Bean.class);
-        final var annotatedMethods = reflections.getMethodsAnnotatedWith(Bean.class);
+        scanning = true;
+        extensionDispatchTable.clear();
+        try {
+            if (!registerGeneratedContexts(packageName, classLoader)) {
+                registerSortedBeanDefinitions(findSortedBeanDefinitions(packageName, classLoader));
+            }
 
-        log.info("Found '{}' classes annotated with bean annotation", annotatedClasses.size());
-        log.info("Found '{}' methods annotated with bean annotation", annotatedMethods.size());
+            // Process extensions, only with beans registered since the previous scan
+            final var newBeans = new ArrayList<BeanDefinition>();
+            BeanDefinition newBean;
+            while ((newBean = unprocessedBeans.poll()) != null) {
+                newBeans.add(newBean);
+            }
+            final var newBeansView = Collections.unmodifiableList(newBeans);
 
-        var beanDefinitions = new HashSet<BeanDefinition>();
-        annotatedClasses.forEach(clazz -> beanDefinitions.add(BeanDefinition.of(clazz)));
-        annotatedMethods.forEach(method -> beanDefinitions.add(BeanDefinition.of(method)));
+            log.debug("Processing extensions with '{}' new beans...", newBeans.size());
+            for (SigewineExtension extension : extensions) {
+                log.debug("Processing extension '{}' with priority '{}'", extension.getClass().getSimpleName(), extension.getPriority());
+                if (extension.isParallelSafe()) {
+                    processBeansInParallel(extension, newBeansView);
+                } else {
+                    extension.processBeans(this, newBeansView);
+                }
+                extension.processEarlierBeans(this, newBeansView);
+            }
+        } finally {
+            scanning = false;
+        }
+
+        // Scoped beans created while scanning are processed once all beans are registered
+        processPendingScopedBeans();
+
+        log.info("Finished scanning package '{}', singleton bean count: '{}'", packageName, beanRegistry.size());
+    }
+
+    /**
+     * Processes the new beans by the parallel-safe extension with
+     * {@link SigewineExtension#processBean(Sigewine, BeanDefinition, Object)}, in chunks of
+     * {@link SigewineOptions#getParallelProcessingChunkSize()} beans processed concurrently on virtual threads. If
+     * processing of any chunk fails, the exception of the first failed chunk is thrown.
+     *
+     * @param extension Parallel-safe extension to process the beans with
+     * @param newBeans  Definitions of the beans registered since extensions last processed beans
+     */
+    @SneakyThrows
+    protected void processBeansInParallel(SigewineExtension extension, List<BeanDefinition> newBeans) {
+        final var size = newBeans.size();
+        final var chunkSize = Math.max(1, sigewineOptions.getParallelProcessingChunkSize());
+
+        if (size <= chunkSize) {
+            processBeanChunk(extension, newBeans);
+            return;
+        }
+
+        log.debug("Processing '{}' new beans in chunks of '{}' beans in parallel", size, chunkSize);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var chunks = new ArrayList<CompletableFuture<Void>>();
+            for (int from = 0; from < size; from += chunkSize) {
+                final var chunk = newBeans.subList(from, Math.min(size, from + chunkSize));
+                chunks.add(CompletableFuture.runAsync(() -> processBeanChunk(extension, chunk), executor));
+            }
+
+            try {
+                chunks.forEach(CompletableFuture::join);
+            } catch (CompletionException exception) {
+                throw exception.getCause() != null ? exception.getCause() : exception;
+            }
+        }
+    }
+
+    private void processBeanChunk(SigewineExtension extension, List<BeanDefinition> chunk) {
+        for (BeanDefinition beanDefinition : chunk) {
+            final var bean = getSingletonBean(beanDefinition);
+            if (bean != null) {
+                extension.processBean(this, beanDefinition, bean);
+            }
+        }
+    }
+
+    /**
+     * Registers beans of the package from all {@link GeneratedContext}s found by {@link ServiceLoader} that contain any
+     * beans of the package. Generated contexts are written by {@code sigewine-processor} when the {@code sigewine.aot}
+     * processor option is enabled.
+     *
+     * @param packageName The package name to register beans of.
+     * @param classLoader The class loader to load the generated contexts with.
+     *
+     * @return True if any generated context was used, false if the package must be scanned
+     */
+    protected boolean registerGeneratedContexts(String packageName, ClassLoader classLoader) {
+        if (!sigewineOptions.isUseGeneratedContext()) {
+            return false;
+        }
 
-        log.debug("Sorting bean definitions...");
         //@formatter:off
-        var sortedBeanDefinitions = beanDefinitions.stream()
-                .peek(beanDefinition -> beanDefinition.computeBeanScore(beanDefinitions))
-                .sorted(Comparator.comparingLong(BeanDefinition::getBeanScore))
+        final var generatedContexts = ServiceLoader.load(GeneratedContext.class, classLoader).stream()
+                .map(ServiceLoader.Provider::get)
+                .filter(generatedContext -> generatedContext.covers(packageName))
                 .toList();
         //@formatter:on
 
+        for (GeneratedContext generatedContext : generatedContexts) {
+            log.info("Registering beans of package '{}' from generated context '{}'", packageName, generatedContext.getClass().getName());
+            generatedContext.register(this, packageName);
+        }
+
+        return !generatedContexts.isEmpty();
+    }
+
+    /**
+     * Sorts the bean definitions topologically by their dependencies (see {@link BeanGraph#sort()}) and registers them
+     * (see {@link #registerSortedBeanDefinitions(List)}).
+     *
+     * @param beanDefinitions Bean definitions to register
+     *
+     * @throws IllegalStateException if the bean definitions have circular dependencies
+     */
+    protected void registerBeanDefinitions(Set<BeanDefinition> beanDefinitions) {
+        registerSortedBeanDefinitions(sortBeanDefinitions(beanDefinitions));
+    }
+
+    /**
+     * Sorts the bean definitions topologically by their dependencies (see {@link BeanGraph#sort()}). Bean definitions
+     * that do not depend on each other are sorted by their class names, method names and bean names.
+     *
+     * @param beanDefinitions Bean definitions to sort
+     *
+     * @return Bean definitions in their instantiation order
+     *
+     * @throws IllegalStateException if the bean definitions have circular dependencies
+     */
+    protected List<BeanDefinition> sortBeanDefinitions(Set<BeanDefinition> beanDefinitions) {
+        log.debug("Sorting bean definitions...");
+        //@formatter:off
+        final var beanGraph = new BeanGraph(beanDefinitions.stream()
+                .sorted(BEAN_DEFINITION_ORDER)
+                .toList());
+        //@formatter:on
+        return beanGraph.sort();
+    }
+
+    /**
+     * Registers the sorted bean definitions, either one by one or in parallel if
+     * {@link SigewineOptions#isParallelInstantiation()} is enabled.
+     *
+     * @param sortedBeanDefinitions Bean definitions in their instantiation order
+     */
+    protected void registerSortedBeanDefinitions(List<BeanDefinition> sortedBeanDefinitions) {
+        if (sigewineOptions.isParallelInstantiation()) {
+            registerBeanDefinitionsInParallel(sortedBeanDefinitions);
+            return;
+        }
+
         for (BeanDefinition beanDefinition : sortedBeanDefinitions) {
-            log.debug("Registering bean definition '{}'", beanDefinition);
+            registerBeanDefinition(beanDefinition);
+        }
+    }
 
-            if (beanDefinition.getMethod() != null) {
-                registerMethodBean(beanDefinition);
-            } else {
-                if (!isBeanRegistered(beanDefinition)) {
-                    registerClassBean(beanDefinition);
-                } else {
-                    log.debug("Bean '{}' was already registered via method bean, skipping...", beanDefinition);
+    /**
+     * Registers the bean definitions, creating beans that do not depend on each other concurrently on virtual threads.
+     * <p>
+     * Each bean is created once all beans preceding it in the list that it may depend on are registered (see
+     * {@link BeanGraph#getPrecedingDependencies(int)}). Registrations made while creating a bean are staged and applied
+     * in the order of the list, so the resulting bean registry is the same as if the beans were registered one by one.
+     * If creation of any bean fails, the exception of the first failed bean in the list is thrown.
+     * </p>
+     *
+     * @param sortedBeanDefinitions Bean definitions to register, in the order they would be registered one by one
+     */
+    @SneakyThrows
+    protected void registerBeanDefinitionsInParallel(List<BeanDefinition> sortedBeanDefinitions) {
+        final var beanGraph = new BeanGraph(sortedBeanDefinitions);
+        final var size = beanGraph.size();
+        final var registered = new ArrayList<CompletableFuture<Void>>(size);
+        final var created = new ArrayList<CompletableFuture<List<StagedRegistration>>>(size);
+
+        log.debug("Registering '{}' bean definitions in parallel", size);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < size; index++) {
+                final var beanDefinition = beanGraph.getDefinitions().get(index);
+                final var dependencies = beanGraph.getPrecedingDependencies(index).stream()
+                    .mapToObj(registered::get)
+                    .toArray(CompletableFuture[]::new);
+
+                registered.add(new CompletableFuture<>());
+                created.add(CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+                    final var stagedRegistrations = new ArrayList<StagedRegistration>();
+                    this.stagedRegistrations.set(stagedRegistrations);
+                    try {
+                        registerBeanDefinition(beanDefinition);
+                    } finally {
+                        this.stagedRegistrations.remove();
+                    }
+                    return stagedRegistrations;
+                }, executor));
+            }
+
+            try {
+                for (int index = 0; index < size; index++) {
+                    for (StagedRegistration stagedRegistration : created.get(index).join()) {
+                        registerBeanWithInstance(stagedRegistration.clazz(), stagedRegistration.beanDefinition(), stagedRegistration.instance());
+                    }
+                    registered.get(index).complete(null);
                 }
+            } catch (Throwable throwable) {
+                // Skip creation of the remaining beans
+                registered.forEach(future -> future.completeExceptionally(throwable));
+                throw throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
             }
         }
+    }
 
-        // Process extensions
-        log.debug("Processing extensions...");
-        extensions.stream()
-            .sorted(Comparator.comparingInt(SigewineExtension::getPriority))
-            .forEach(extension -> {
-                log.debug("Processing extension '{}' with priority '{}'", extension.getClass().getSimpleName(), extension.getPriority());
-                extension.processBeans(this);
-            });
+    /**
+     * Registers the bean definition as a method bean or a class bean.
+     *
+     * @param beanDefinition Bean definition to register
+     */
+    protected void registerBeanDefinition(BeanDefinition beanDefinition) {
+        log.debug("Registering bean definition '{}'", beanDefinition);
+
+        if (beanDefinition.getMethod() != null) {
+            registerMethodBean(beanDefinition);
+        } else {
+            if (!isBeanRegistered(beanDefinition)) {
+                registerClassBean(beanDefinition);
+            } else {
+                log.debug("Bean '{}' was already registered via method bean, skipping...", beanDefinition);
+            }
+        }
+    }
+
+    /**
+     * Finds bean definitions within the package (see {@link #findBeanDefinitions(String, ClassLoader)}) and sorts them
+     * by their dependencies. If {@link SigewineOptions#getScanCacheDirectory()} is set, the sorted bean definitions are
+     * loaded from the {@link ScanCache} when the classpath has not changed since they were stored, otherwise they are
+     * stored there.
+     *
+     * @param packageName The package name to scan.
+     * @param classLoader The class loader to use for scanning.
+     *
+     * @return Bean definitions in their instantiation order
+     *
+     * @throws ClassNotFoundException if a class listed in the bean index cannot be loaded
+     */
+    protected List<BeanDefinition> findSortedBeanDefinitions(String packageName, ClassLoader classLoader) throws ClassNotFoundException {
+        final var scanCacheDirectory = sigewineOptions.getScanCacheDirectory();
+        if (scanCacheDirectory == null) {
+            return sortBeanDefinitions(findBeanDefinitions(packageName, classLoader));
+        }
 
-        log.info("Finished scanning package '{}', singleton bean count: '{}'", packageName, singletonBeans.size());
+        final var scanCache = new ScanCache(scanCacheDirectory);
+        final byte[] fingerprint;
+        try {
+            fingerprint = ScanCache.fingerprint(packageName, classLoader);
+        } catch (IOException exception) {
+            log.warn("Failed to fingerprint classpath of package '{}', scan cache is not used", packageName, exception);
+            return sortBeanDefinitions(findBeanDefinitions(packageName, classLoader));
+        }
+
+        final var cachedBeanDefinitions = scanCache.load(packageName, classLoader, fingerprint);
+        if (cachedBeanDefinitions != null) {
+            log.info("Loaded '{}' bean definitions of package '{}' from scan cache", cachedBeanDefinitions.size(), packageName);
+            return cachedBeanDefinitions;
+        }
+
+        final var sortedBeanDefinitions = sortBeanDefinitions(findBeanDefinitions(packageName, classLoader));
+        try {
+            scanCache.store(packageName, fingerprint, sortedBeanDefinitions);
+        } catch (IOException exception) {
+            log.warn("Failed to store scan cache of package '{}'", packageName, exception);
+        }
+        return sortedBeanDefinitions;
+    }
+
+    /**
+     * Finds bean definitions of classes and methods annotated with {@link Bean} within the package. Reads the
+     * compile-time {@link BeanIndex} if enabled and it lists any beans in the package, and scans the classpath roots
+     * containing the package that have no index (all of them if the index is not used).
+     *
+     * @param packageName The package name to scan.
+     * @param classLoader The class loader to use for scanning.
+     *
+     * @return Set of found bean definitions
+     *
+     * @throws ClassNotFoundException if a class listed in the bean index cannot be loaded
+     */
+    protected Set<BeanDefinition> findBeanDefinitions(String packageName, ClassLoader classLoader) throws ClassNotFoundException {
+        final var annotatedClasses = new LinkedHashSet<Class<?>>();
+        final var annotatedMethods = new LinkedHashSet<Method>();
+        final var beanIndex = sigewineOptions.isUseBeanIndex() ? BeanIndex.load(packageName, classLoader) : null;
+        var scannedUrls = ClasspathHelper.forPackage(packageName, classLoader);
+
+        if (beanIndex != null && !beanIndex.isEmpty()) {
+            log.debug("Using bean index with '{}' entries for package '{}'", beanIndex.getEntries().size(), packageName);
+            annotatedClasses.addAll(beanIndex.getAnnotatedClasses(classLoader));
+            annotatedMethods.addAll(beanIndex.getAnnotatedMethods(classLoader));
+
+            // Classpath roots without an index may contain beans of the package too
+            scannedUrls = scannedUrls.stream()
+                .filter(url -> !beanIndex.isIndexed(url))
+                .toList();
+            if (!scannedUrls.isEmpty()) {
+                log.debug("Scanning '{}' classpath roots of package '{}' without bean index", scannedUrls.size(), packageName);
+            }
+        } else {
+            log.debug("No bean index entries found for package '{}', scanning classpath", packageName);
+        }
+
+        if (!scannedUrls.isEmpty()) {
+            ConfigurationBuilder config = new ConfigurationBuilder()
+                    .setUrls(scannedUrls)
+                    .setScanners(Scanners.TypesAnnotated, Scanners.MethodsAnnotated)
+                    .filterInputsBy(new FilterBuilder().includePackage(packageName));
+            config.setClassLoaders(new ClassLoader[] {classLoader});
+            final var reflections = new Reflections(config);
+            annotatedClasses.addAll(reflections.getTypesAnnotatedWith(Bean.class));
+            annotatedMethods.addAll(reflections.getMethodsAnnotatedWith(Bean.class));
+        }
+
+        // Annotation types annotated with @Bean mark the beans, they are not beans themselves
+        annotatedClasses.removeIf(Class::isAnnotation);
+
+        log.info("Found '{}' classes annotated with bean annotation", annotatedClasses.size());
+        log.info("Found '{}' methods annotated with bean annotation", annotatedMethods.size());
+
+        var beanDefinitions = new HashSet<BeanDefinition>();
+        annotatedClasses.forEach(clazz -> beanDefinitions.add(BeanDefinition.of(clazz)));
+        annotatedMethods.forEach(method -> beanDefinitions.add(BeanDefinition.of(method)));
+        return beanDefinitions;
+    }
+
+    /**
+     * Seals this Sigewine instance. Publishes an immutable snapshot of the bean registry, after which
+     * {@link #inject(Class)} and {@link #inject(Class, String)} read it without any locking, so they may be called
+     * from any number of threads. Any subsequent attempt to scan or register beans throws {@link IllegalStateException}.
+     * <p>
+     * Waits for any running {@link #scan(String, ClassLoader)} to finish.
+     * </p>
+     */
+    public synchronized void seal() {
+        log.info("Sealing Sigewine, singleton bean count: '{}'", beanRegistry.size());
+        beanRegistry.seal();
+    }
+
+    /**
+     * Checks if this Sigewine instance is sealed.
+     *
+     * @return True if sealed, false otherwise
+     */
+    public boolean isSealed() {
+        return beanRegistry.isSealed();
     }
 
     /**
@@ -187,8 +579,17 @@ public class Sigewine {
      *
      * @return Instance of the class with dependencies injected
      */
+    @SuppressWarnings("unchecked")
     public <T> T inject(Class<T> clazz) {
-        return inject(clazz, "");
+        var beanSupplier = injectedBeans.get(clazz);
+        if (beanSupplier == null) {
+            final var beanDefinition = BeanDefinition.of(clazz);
+            if (!isBeanRegistered(beanDefinition)) {
+                return (T) inject(beanDefinition);
+            }
+            beanSupplier = injectedBeans.computeIfAbsent(clazz, key -> new BeanSupplier<>(this, key, ""));
+        }
+        return (T) beanSupplier.get();
     }
 
     /**
@@ -200,10 +601,35 @@ public class Sigewine {
      *
      * @return Instance of the class with dependencies injected
      */
-    @SneakyThrows
+    @SuppressWarnings("unchecked")
     public <T> T inject(Class<T> clazz, String beanName) {
-        // Get bean name for the class
-        final var beanDefinition = BeanDefinition.of(clazz, beanName);
+        if (beanName == null || beanName.isEmpty()) {
+            return inject(clazz);
+        }
+
+        final var beanSuppliers = injectedNamedBeans.get(clazz);
+        var beanSupplier = beanSuppliers != null ? beanSuppliers.get(beanName) : null;
+        if (beanSupplier == null) {
+            final var beanDefinition = BeanDefinition.of(clazz, beanName);
+            if (!isBeanRegistered(beanDefinition)) {
+                return (T) inject(beanDefinition);
+            }
+            beanSupplier = injectedNamedBeans.computeIfAbsent(clazz, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(beanName, key -> new BeanSupplier<>(this, clazz, key));
+        }
+        return (T) beanSupplier.get();
+    }
+
+    /**
+     * Injects dependencies into the class of the bean definition. Returns the registered bean matching the bean
+     * definition, if any, otherwise creates a new instance of the class.
+     *
+     * @param beanDefinition Bean definition with the class and bean name to use
+     *
+     * @return Instance of the class with dependencies injected
+     */
+    public Object inject(BeanDefinition beanDefinition) {
+        final var clazz = beanDefinition.getClazz();
 
         // If bean is already registered, return it
         if (isBeanRegistered(beanDefinition)) {
@@ -211,64 +637,69 @@ public class Sigewine {
             if (!clazz.isAssignableFrom(beanObject.getClass())) {
                 throw new IllegalArgumentException("Bug! Bean " + beanDefinition + " is not of type " + clazz.getName());
             }
-            return clazz.cast(beanObject);
+            return beanObject;
         }
 
-        // Inject dependencies
+        // Create instance through the compiled factory of the class
         log.debug("Injecting beans into class bean '{}' of class '{}'", beanDefinition, clazz.getName());
-        Preconditions.checkOneConstructor(clazz);
-
-        final var constructor = clazz.getConstructors()[0];
-        final var parameters = constructor.getParameters();
-        final var args = new Object[parameters.length];
+        return BeanFactory.of(clazz).newInstance(this);
+    }
 
-        log.debug("Found '{}' parameters for bean '{}' of class '{}': '{}'", parameters.length, beanDefinition,
-            clazz.getName(), parameters);
+    /**
+     * Resolves a dependency of a class, e.g. its constructor parameter.
+     * <p>
+     * If a bean matching the dependency is registered, it is returned. Otherwise, if the dependency is a
+     * {@link Supplier}, a supplier of the bean of the element type is returned (see
+     * {@link #getBeanSupplier(Class, String)}), which lets beans depend on each other lazily. If the dependency is a
+     * {@link List} or a {@link Set}, a new collection with all beans assignable to the element type is returned.
+     * </p>
+     *
+     * @param dependency     Bean definition of the dependency
+     * @param elementType    Element type if the dependency is a collection or a supplier, null otherwise
+     * @param parameterName  Name of the parameter, used in error messages
+     * @param dependentClass Class that requires the dependency, used in error messages
+     *
+     * @return Resolved dependency
+     *
+     * @throws IllegalArgumentException if the dependency cannot be resolved
+     */
+    public Object resolveDependency(BeanDefinition dependency, Class<?> elementType, String parameterName, Class<?> dependentClass) {
+        if (isBeanRegistered(dependency)) {
+            return getRegisteredBean(dependency);
+        }
 
-        for (int i = 0; i < parameters.length; i++) {
-            final var parameter = parameters[i];
-            final var parameterType = parameter.getType();
-            final var parameterName = parameter.getName();
-            final var parameterBeanDefinition = BeanDefinition.of(parameter);
+        final var parameterType = dependency.getClazz();
 
-            Object argInstance;
+        if (elementType != null && parameterType == Supplier.class) {
+            // Supplier of a bean, resolved lazily
+            return getBeanSupplier(elementType, dependency.getName());
+        }
 
-            if (isBeanRegistered(parameterBeanDefinition)) {
-                argInstance = getRegisteredBean(parameterBeanDefinition);
+        if (elementType != null && Collection.class.isAssignableFrom(parameterType)) {
+            // We are dealing with collections.
+            // 1. Get all beans of the generic type
+            // 2. Find out whenever the parameter is a List or a Set
+            // 3. Create the collection and fill it with the beans
+            final var beansOfGenericType = beanRegistry.getBeansAssignableTo(elementType);
+            if (List.class.isAssignableFrom(parameterType)) {
+                return new ArrayList<>(beansOfGenericType);
+            } else if (Set.class.isAssignableFrom(parameterType)) {
+                return newIdentitySet(beansOfGenericType);
             } else {
-                if (Collection.class.isAssignableFrom(parameterType)) {
-                    // We are dealing with collections.
-                    // 1. Get the generic type of the collection
-                    // 2. Get all beans of the generic type
-                    // 3. Find out whenever the parameter is a List or a Set
-                    // 4. Create the collection and fill it with the beans
-                    final var genericType = ReflectionUtil.getFirstGenericParameterType(parameter);
-                    final var beansOfGenericType = getAllBeansThatAreAssignableFrom(genericType);
-                    if (List.class.isAssignableFrom(parameterType)) {
-                        argInstance = new ArrayList<>(beansOfGenericType);
-                    } else if (Set.class.isAssignableFrom(parameterType)) {
-                        argInstance = new HashSet<>(beansOfGenericType);
-                    } else {
-                        throw new IllegalArgumentException("Unsupported collection type '" + parameterType.getName() + "' for parameter '" + parameterName + "' in class '" + clazz.getName() + "'");
-                    }
-                } else {
-                    throw new IllegalArgumentException("No bean found for parameter '" + parameterName + "' of type '" + parameterType.getName() + "' in class '" + clazz.getName() + "'");
-                }
+                throw new IllegalArgumentException("Unsupported collection type '" + parameterType.getName() + "' for parameter '" + parameterName + "' in class '" + dependentClass.getName() + "'");
             }
-
-            args[i] = argInstance;
         }
 
-        log.debug("Resolved '{}' args for bean '{}' of class '{}', creating instance: '{}'", args.length, beanDefinition, clazz.getName(), args);
-        return clazz.cast(constructor.newInstance(args));
+        throw new IllegalArgumentException("No bean found for parameter '" + parameterName + "' of type '" + parameterType.getName() + "' in class '" + dependentClass.getName() + "'");
     }
 
     /**
-     * Adds a extension to the Sigewine instance.
+     * Adds a extension to the Sigewine instance. Extensions with the same priority are processed in the order they
+     * were added.
      *
      * @param extension Constellation to add
      */
-    public void addExtension(@NonNull SigewineExtension extension) {
+    public synchronized void addExtension(@NonNull SigewineExtension extension) {
         if (extensions.stream().anyMatch(c -> c.getClass().equals(extension.getClass()))) {
             throw new IllegalArgumentException("Extension " + extension.getClass().getSimpleName() + " is already"
                 + " registered");
@@ -276,6 +707,26 @@ public class Sigewine {
         log.debug("Adding extension '{}' with priority '{}'", extension.getClass().getSimpleName(),
             extension.getPriority());
         extensions.add(extension);
+        extensions.sort(Comparator.comparingInt(SigewineExtension::getPriority));
+        extensionDispatchTable.clear();
+    }
+
+    /**
+     * Returns the extensions interested in instances of the bean class, sorted by their priority. The interest of
+     * extensions is evaluated once per class, so most beans are created without calling any extension.
+     *
+     * @param beanClass Class of the bean
+     *
+     * @return Extensions to process the bean with
+     */
+    protected List<SigewineExtension> getInterestedExtensions(Class<?> beanClass) {
+        return extensionDispatchTable.computeIfAbsent(beanClass, clazz -> {
+            final var interestedExtensions = extensions.stream()
+                .filter(extension -> extension.isInterestedIn(clazz))
+                .toList();
+            log.debug("Extensions interested in class '{}': '{}'", clazz.getName(), interestedExtensions);
+            return interestedExtensions;
+        });
     }
 
     /**
@@ -283,16 +734,45 @@ public class Sigewine {
      *
      * @param beanDefinition Bean definition to register
      */
-    @SneakyThrows
     protected void registerMethodBean(BeanDefinition beanDefinition) {
         final var method = beanDefinition.getMethod();
         final var declaringClass = method.getDeclaringClass();
-        final var declaringClassBeanDefinition = BeanDefinition.of(declaringClass);
-        final var returnType = method.getReturnType();
 
         Preconditions.checkNoVoidReturnType(method);
         Preconditions.checkNoPrimitiveReturnType(method);
 
+        registerMethodBean(beanDefinition, declaringClass, () -> inject(declaringClass), BeanFactory.compileMethod(method));
+    }
+
+    /**
+     * Registers a method bean created by the factory method. The instance of the declaring class is taken from the
+     * registered beans or created by the declaring class factory and registered as a bean.
+     *
+     * @param beanDefinition        Bean definition to register
+     * @param declaringClass        Class declaring the factory method
+     * @param declaringClassFactory Factory creating instance of the declaring class if it is not registered
+     * @param factoryMethod         Factory method creating the bean instance from the declaring class instance
+     */
+    public void registerMethodBean(BeanDefinition beanDefinition, Class<?> declaringClass, Supplier<?> declaringClassFactory, Function<Object, ?> factoryMethod) {
+        registerMethodBean(beanDefinition, beanDefinition.getScope(), beanDefinition.isLazy(), declaringClass, declaringClassFactory, factoryMethod);
+    }
+
+    /**
+     * Registers a method bean created by the factory method. The instance of the declaring class is taken from the
+     * registered beans or created by the declaring class factory and registered as a bean. If the bean is lazy or not a
+     * singleton, only the calls of the factory method are deferred until the bean is used.
+     *
+     * @param beanDefinition        Bean definition to register
+     * @param scope                 Name of the scope the method is annotated with
+     * @param lazy                  Whether the method is annotated as a lazy bean
+     * @param declaringClass        Class declaring the factory method
+     * @param declaringClassFactory Factory creating instance of the declaring class if it is not registered
+     * @param factoryMethod         Factory method creating the bean instance from the declaring class instance
+     */
+    public void registerMethodBean(BeanDefinition beanDefinition, String scope, boolean lazy, Class<?> declaringClass, Supplier<?> declaringClassFactory, Function<Object, ?> factoryMethod) {
+        final var declaringClassBeanDefinition = BeanDefinition.of(declaringClass);
+        final var returnType = beanDefinition.getClazz();
+
         if (isBeanRegistered(beanDefinition)) {
             if (isBeanRegistered(beanDefinition, true)) {
                 throw new IllegalArgumentException("Class " + returnType.getName() + " already registered as " + beanDefinition);
@@ -306,14 +786,18 @@ public class Sigewine {
         if (isBeanRegistered(declaringClassBeanDefinition)) {
             beanClassInstance = getRegisteredBean(declaringClassBeanDefinition);
         } else {
-            beanClassInstance = inject(declaringClass);
+            beanClassInstance = declaringClassFactory.get();
             registerBean(declaringClassBeanDefinition, beanClassInstance);
         }
 
-        final var beanInstance = method.invoke(beanClassInstance);
+        if (registerScopedBean(beanDefinition, scope, lazy, () -> factoryMethod.apply(beanClassInstance))) {
+            return;
+        }
+
+        final var beanInstance = factoryMethod.apply(beanClassInstance);
 
         if (beanInstance == null) {
-            throw new IllegalArgumentException("Method " + method + " cannot return null");
+            throw new IllegalArgumentException("Method " + factoryMethod + " cannot return null");
         }
 
         registerBeanWithInstance(returnType, beanDefinition, beanInstance);
@@ -324,24 +808,77 @@ public class Sigewine {
      *
      * @param beanDefinition Bean definition to register
      */
-    @SneakyThrows
     protected void registerClassBean(BeanDefinition beanDefinition) {
-        final var constructorBeanDefinitions = beanDefinition.getConstructorBeanDefinitions();
+        registerClassBean(beanDefinition, () -> {
+            final var beanFactory = BeanFactory.of(beanDefinition.getClazz());
+            log.debug("Creating bean instance for class bean '{}' with '{}' constructor arguments", beanDefinition, beanFactory.getDependencies().size());
+            return beanFactory.newInstance(this);
+        });
+    }
+
+    /**
+     * Registers a class bean created by the instance factory. The created instance is processed by the extensions
+     * interested in its class before it is registered. Does nothing if a matching bean is already registered, e.g. via method bean. If the bean
+     * is lazy or not a singleton, its instances are created and processed by its scope instead.
+     *
+     * @param beanDefinition  Bean definition to register
+     * @param instanceFactory Factory creating the bean instance
+     */
+    public void registerClassBean(BeanDefinition beanDefinition, Supplier<?> instanceFactory) {
+        if (isBeanRegistered(beanDefinition)) {
+            log.debug("Bean '{}' was already registered via method bean, skipping...", beanDefinition);
+            return;
+        }
+
         final var beanClass = beanDefinition.getClazz();
-        Object beanInstance;
 
-        if (constructorBeanDefinitions.isEmpty()) {
-            log.debug("Creating bean instance for class bean '{}'", beanDefinition);
-            beanInstance = beanClass.getConstructor().newInstance();
+        if (registerScopedBean(beanDefinition, beanDefinition.getScope(), beanDefinition.isLazy(), () -> createClassBeanInstance(beanDefinition, instanceFactory))) {
+            return;
+        }
+
+        final var beanInstance = createClassBeanInstance(beanDefinition, instanceFactory);
+
+        log.debug("Registering bean instance for class bean '{}' of class '{}'", beanDefinition, beanClass.getName());
+        registerBeanWithInstance(beanClass, beanDefinition, beanInstance);
+    }
+
+    /**
+     * Creates an instance of a class bean and processes it by all extensions interested in its class. If any extension
+     * replaces the instantiated class (see {@link SigewineExtension#processBeanClass(Class, BeanDefinition, Sigewine)}),
+     * the instance is created through the compiled factory of the replacing class instead of the instance factory.
+     *
+     * @param beanDefinition  Bean definition of the class bean
+     * @param instanceFactory Factory creating the bean instance
+     *
+     * @return Processed bean instance
+     */
+    protected Object createClassBeanInstance(BeanDefinition beanDefinition, Supplier<?> instanceFactory) {
+        final var beanClass = beanDefinition.getClazz();
+        final var interestedExtensions = getInterestedExtensions(beanClass);
+
+        Class<?> instantiatedClass = beanClass;
+        for (SigewineExtension extension : interestedExtensions) {
+            final var processedClass = extension.processBeanClass(instantiatedClass, beanDefinition, this);
+
+            if (processedClass == null || !instantiatedClass.isAssignableFrom(processedClass)) {
+                throw new IllegalStateException("Extension " + extension.getClass().getName() + " returned class " + processedClass + " not assignable to " + instantiatedClass.getName() + " for bean " + beanDefinition);
+            }
+
+            instantiatedClass = processedClass;
+        }
+
+        Object beanInstance;
+        if (instantiatedClass == beanClass) {
+            beanInstance = instanceFactory.get();
         } else {
-            log.debug("Creating bean instance for class bean '{}' with constructor arguments: '{}'", beanDefinition, constructorBeanDefinitions);
-            beanInstance = inject(beanClass);
+            log.debug("Creating instance of class '{}' for class bean '{}'", instantiatedClass.getName(), beanDefinition);
+            beanInstance = BeanFactory.of(instantiatedClass).newInstance(this);
         }
 
         log.debug("Processing extensions for class bean '{}'", beanDefinition);
-        for (SigewineExtension extension : extensions) {
+        for (SigewineExtension extension : interestedExtensions) {
             var processedBeanInstance = extension.processCreatedBeanInstance(beanInstance, beanDefinition, this);
-            
+
             if (processedBeanInstance == null) {
                 throw new IllegalStateException("Extension " + extension.getClass().getName() + " returned null for bean " + beanDefinition);
             }
@@ -349,44 +886,224 @@ public class Sigewine {
             beanInstance = processedBeanInstance;
         }
 
-        log.debug("Registering bean instance for class bean '{}' of class '{}'", beanDefinition, beanClass.getName());
-        registerBeanWithInstance(beanClass, beanDefinition, beanInstance);
+        return beanInstance;
+    }
+
+    /**
+     * Registers the bean as a {@link ScopedBean} if it is lazy or its scope is not {@link BeanScope#SINGLETON}. The
+     * instance factory is resolved once and used by the scope to create every instance of the bean.
+     *
+     * @param beanDefinition  Bean definition to register
+     * @param scopeName       Name of the bean's scope
+     * @param lazy            Whether the bean is annotated as a lazy bean
+     * @param instanceFactory Factory creating a new instance of the bean
+     *
+     * @return True if the bean was registered as a scoped bean, false if it must be created now
+     *
+     * @throws IllegalArgumentException if the scope is unknown
+     */
+    protected boolean registerScopedBean(BeanDefinition beanDefinition, String scopeName, boolean lazy, Supplier<?> instanceFactory) {
+        final var scope = scopes.get(scopeName);
+        if (scope == null) {
+            throw new IllegalArgumentException("Unknown scope '" + scopeName + "' of bean " + beanDefinition);
+        }
+
+        if (BeanScope.SINGLETON.equals(scope.getName()) && !lazy && !sigewineOptions.isLazyInitialization()) {
+            return false;
+        }
+
+        log.debug("Registering bean '{}' with scope '{}'{}", beanDefinition, scope.getName(), lazy ? " as lazy" : "");
+        final var provider = scope.createProvider(beanDefinition, instanceFactory, instance -> processScopedBeanInstance(beanDefinition, instance));
+        registerBeanWithInstance(beanDefinition.getClazz(), beanDefinition, new ScopedBean(beanDefinition, scope, provider));
+        return true;
+    }
+
+    /**
+     * Processes a new instance of a scoped bean by all extensions (see
+     * {@link SigewineExtension#processScopedBeanInstance(Object, BeanDefinition, Sigewine)}). If a scan is in progress,
+     * the processing is deferred until the scan finishes, so all beans the instance may refer to are registered.
+     *
+     * @param beanDefinition Bean definition of the scoped bean
+     * @param instance       Created instance of the scoped bean
+     */
+    protected void processScopedBeanInstance(BeanDefinition beanDefinition, Object instance) {
+        if (!scanning) {
+            processScopedBeanInstanceByExtensions(beanDefinition, instance);
+            return;
+        }
+
+        pendingScopedBeans.add(new PendingScopedBean(beanDefinition, instance));
+        // Checked after adding, so either this thread or the finishing scan processes the bean
+        if (!scanning) {
+            processPendingScopedBeans();
+        }
     }
 
     /**
-     * Registers a bean with an instance. Checks if the bean is already registered.
+     * Processes all scoped bean instances waiting to be processed by extensions.
+     */
+    protected void processPendingScopedBeans() {
+        PendingScopedBean pendingScopedBean;
+        while ((pendingScopedBean = pendingScopedBeans.poll()) != null) {
+            processScopedBeanInstanceByExtensions(pendingScopedBean.beanDefinition(), pendingScopedBean.instance());
+        }
+    }
+
+    private void processScopedBeanInstanceByExtensions(BeanDefinition beanDefinition, Object instance) {
+        log.debug("Processing extensions for instance of scoped bean '{}'", beanDefinition);
+        for (SigewineExtension extension : extensions) {
+            extension.processScopedBeanInstance(instance, beanDefinition, this);
+        }
+    }
+
+    /**
+     * Runs the action within a new request scope (see {@link RequestScope}). Beans of the request scope used by the
+     * action are created once per call and dropped when the action finishes.
+     *
+     * @param action Action to run
+     */
+    public void runInScope(@NonNull Runnable action) {
+        runInScope(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action within a new request scope (see {@link RequestScope}) and returns its result. Beans of the
+     * request scope used by the action are created once per call and dropped when the action finishes.
+     *
+     * @param action Action to run
+     * @param <T>    Type of the action's result
+     *
+     * @return Result of the action
+     */
+    public <T> T runInScope(@NonNull Supplier<T> action) {
+        if (!(scopes.get(BeanScope.REQUEST) instanceof RequestScope requestScope)) {
+            throw new IllegalStateException("Scope '" + BeanScope.REQUEST + "' is not a RequestScope");
+        }
+        return requestScope.run(action);
+    }
+
+    /**
+     * Gets a supplier of the bean's instance, e.g. for {@link BeanAccessor} or constructor parameters of type
+     * {@link Supplier}. If the bean is a scoped bean, the supplier is its scope's provider, so each call gets the
+     * instance of the current scope without looking up the registry. Otherwise, the supplier is a {@link BeanSupplier}
+     * memoizing the bean's instance.
+     *
+     * @param clazz    Class of the bean
+     * @param beanName Name of the bean, may be null or empty
+     * @param <T>      Type of the bean
+     *
+     * @return Supplier of the bean's instance
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Supplier<T> getBeanSupplier(@NonNull Class<T> clazz, String beanName) {
+        final var beanSupplier = new BeanSupplier<>(this, clazz, beanName);
+        if (beanRegistry.findRegistered(beanSupplier.getBeanDefinition(), true) instanceof ScopedBean scopedBean) {
+            return (Supplier<T>) scopedBean.getProvider();
+        }
+        return beanSupplier;
+    }
+
+    /**
+     * Adds a scope to the Sigewine instance. Beans refer to the scope by its name with {@link Bean#scope()}.
+     *
+     * @param scope Scope to add
+     *
+     * @throws IllegalArgumentException if a scope with the same name is already added
+     */
+    public void addScope(@NonNull BeanScope scope) {
+        if (scopes.putIfAbsent(scope.getName(), scope) != null) {
+            throw new IllegalArgumentException("Scope '" + scope.getName() + "' is already added");
+        }
+        log.debug("Adding scope '{}' of class '{}'", scope.getName(), scope.getClass().getSimpleName());
+    }
+
+    /**
+     * Registers a bean with an instance. Checks if the bean is already registered. When called while creating a bean
+     * in parallel, the registration is staged until all preceding beans are registered.
      *
      * @param clazz          Class of the bean
      * @param beanDefinition Bean definition
      * @param instance       Instance of the bean
      */
     protected void registerBeanWithInstance(Class<?> clazz, BeanDefinition beanDefinition, Object instance) {
-        if (isBeanRegistered(beanDefinition)) {
-            if (isBeanRegistered(beanDefinition, true)) {
-                throw new IllegalArgumentException("Class " + instance.getClass().getName() + " already registered as " + beanDefinition);
-            }
+        final var stagedRegistrations = this.stagedRegistrations.get();
+        if (stagedRegistrations != null) {
+            log.debug("Staging registration of bean '{}' of class '{}'", beanDefinition, clazz.getName());
+            stagedRegistrations.add(new StagedRegistration(clazz, beanDefinition, instance));
+            return;
         }
+
         log.debug("Registering bean '{}' of class '{}'", beanDefinition, clazz.getName());
-        singletonBeans.put(beanDefinition, instance);
+        beanRegistry.register(beanDefinition, instance);
+        if (!(instance instanceof ScopedBean)) {
+            unprocessedBeans.add(beanDefinition);
+        }
+    }
+
+    /**
+     * Gets unmodifiable view of beans registered in the DI container, in the registration order.
+     *
+     * @return Map of bean definitions to bean instances
+     */
+    public Map<BeanDefinition, Object> getSingletonBeans() {
+        return beanRegistry.getBeans();
+    }
+
+    /**
+     * Gets the instance of the singleton bean registered under exactly the bean definition.
+     *
+     * @param beanDefinition Bean definition the bean was registered under
+     *
+     * @return Bean instance, or null if no singleton bean is registered under the bean definition
+     */
+    public Object getSingletonBean(BeanDefinition beanDefinition) {
+        final var bean = beanRegistry.get(beanDefinition);
+        return bean instanceof ScopedBean ? null : bean;
     }
 
     /**
-     * Gets all beans that are assignable from the specified class.
+     * Finds the singleton bean {@link #inject(BeanDefinition)} would return for the bean definition, without creating
+     * any instances.
+     *
+     * @param beanDefinition Bean definition to look for
+     *
+     * @return Bean instance, or null if no bean matches or the matching bean is a scoped bean (e.g. a lazy or a
+     * prototype bean)
+     */
+    public Object findSingletonBean(BeanDefinition beanDefinition) {
+        if (!isBeanRegistered(beanDefinition)) {
+            return null;
+        }
+        final var bean = beanRegistry.findRegistered(beanDefinition, true);
+        return bean instanceof ScopedBean ? null : bean;
+    }
+
+    /**
+     * Gets all beans that are assignable from the specified class. The returned set compares beans by identity.
      *
      * @param clazz Class to check
      *
      * @return Set of beans that are assignable from the specified class
      */
     public <T> Set<T> getAllBeansThatAreAssignableFrom(Class<T> clazz) {
-        final var beans = new HashSet<>();
-        for (var entry : this.singletonBeans.entrySet()) {
-            if (clazz.isAssignableFrom(entry.getValue().getClass())) {
-                beans.add(entry.getValue());
-            }
-        }
-
         //noinspection unchecked
-        return (Set<T>) beans;
+        return (Set<T>) newIdentitySet(beanRegistry.getBeansAssignableTo(clazz));
+    }
+
+    /**
+     * Creates a mutable identity-based set containing the specified beans.
+     *
+     * @param beans Beans to add to the set
+     *
+     * @return Set of beans that compares them by identity
+     */
+    protected static Set<Object> newIdentitySet(Collection<Object> beans) {
+        final Set<Object> set = Collections.newSetFromMap(new IdentityHashMap<>(beans.size()));
+        set.addAll(beans);
+        return set;
     }
 
     /**
@@ -396,8 +1113,8 @@ public class Sigewine {
      *
      * @return True if the bean is already registered, false otherwise
      */
-    protected boolean isBeanRegistered(BeanDefinition beanDefinition) {
-        return singletonBeans.entrySet().stream().anyMatch(entry -> entry.getKey().is(beanDefinition, !beanDefinition.getName().isEmpty()));
+    public boolean isBeanRegistered(BeanDefinition beanDefinition) {
+        return beanRegistry.contains(beanDefinition, !beanDefinition.getName().isEmpty());
     }
 
     /**
@@ -409,7 +1126,7 @@ public class Sigewine {
      * @return True if the bean is already registered, false otherwise
      */
     protected boolean isBeanRegistered(BeanDefinition beanDefinition, boolean namesMustMatch) {
-        return singletonBeans.entrySet().stream().anyMatch(entry -> entry.getKey().is(beanDefinition, namesMustMatch));
+        return beanRegistry.contains(beanDefinition, namesMustMatch);
     }
 
     /**
@@ -420,12 +1137,11 @@ public class Sigewine {
      * @return Bean name
      */
     protected Object getRegisteredBean(BeanDefinition beanDefinition) {
-        return singletonBeans.entrySet().stream()
-            .filter(entry -> entry.getKey().is(beanDefinition, true))
-            .map(Map.Entry::getValue)
-            .findFirst()
-            .map(beanDefinition.getClazz()::cast)
-            .orElseThrow(() -> new IllegalArgumentException("No bean found for " + beanDefinition));
+        final var bean = beanRegistry.find(beanDefinition, true);
+        if (bean == null) {
+            throw new IllegalArgumentException("No bean found for " + beanDefinition);
+        }
+        return beanDefinition.getClazz().cast(bean);
     }
 
     /**
@@ -437,4 +1153,25 @@ public class Sigewine {
     public void registerBean(BeanDefinition beanDefinition, Object instance) {
         registerBeanWithInstance(beanDefinition.getClazz(), beanDefinition, instance);
     }
+
+    /**
+     * Registration of a bean staged while creating a bean in parallel.
+     *
+     * @param clazz          Class of the bean
+     * @param beanDefinition Bean definition
+     * @param instance       Instance of the bean
+     */
+    protected record StagedRegistration(Class<?> clazz, BeanDefinition beanDefinition, Object instance) {
+
+    }
+
+    /**
+     * Instance of a scoped bean created while scanning, waiting to be processed by extensions.
+     *
+     * @param beanDefinition Bean definition of the scoped bean
+     * @param instance       Created instance of the scoped bean
+     */
+    protected record PendingScopedBean(BeanDefinition beanDefinition, Object instance) {
+
+    }
 }
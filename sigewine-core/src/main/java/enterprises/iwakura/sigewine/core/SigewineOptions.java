@@ -1,9 +1,14 @@
 package enterprises.iwakura.sigewine.core;
 
+import java.nio.file.Path;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
 import enterprises.iwakura.sigewine.core.extension.InjectBeanExtension;
+import enterprises.iwakura.sigewine.core.extension.SigewineExtension;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Holds configuration options for {@link Sigewine}.
@@ -11,6 +16,7 @@ import lombok.Data;
 @Data
 @Builder
 @AllArgsConstructor
+@NoArgsConstructor
 public class SigewineOptions {
 
     /**
@@ -26,8 +32,49 @@ public class SigewineOptions {
     private boolean registerItselfAsBean = true;
 
     /**
-     * Default constructor for {@link SigewineOptions}.
+     * Whether to read the compile-time bean index written by {@code sigewine-processor} when scanning. If no index
+     * entries are found for the scanned package, classpath scanning is used instead.
+     */
+    @Builder.Default
+    private boolean useBeanIndex = true;
+
+    /**
+     * Whether to register beans from ahead-of-time generated contexts written by {@code sigewine-processor} (with the
+     * {@code sigewine.aot} processor option enabled) instead of scanning, when they contain beans of the scanned package.
+     */
+    @Builder.Default
+    private boolean useGeneratedContext = true;
+
+    /**
+     * Whether to create beans that do not depend on each other concurrently on virtual threads when scanning. The
+     * resulting beans are registered in the same order as when they are created one by one. Extensions must be safe to
+     * call from multiple threads when enabled. Beans registered from generated contexts are always created one by one.
+     */
+    @Builder.Default
+    private boolean parallelInstantiation = false;
+
+    /**
+     * Number of beans processed by a single task when parallel-safe extensions (see
+     * {@link SigewineExtension#isParallelSafe()}) process the beans registered by a scan. The chunks are processed
+     * concurrently on virtual threads; if the scan registered no more beans than a single chunk, they are processed
+     * on the scanning thread.
+     */
+    @Builder.Default
+    private int parallelProcessingChunkSize = 256;
+
+    /**
+     * Whether all beans found when scanning are lazy, as if annotated with {@link Bean#lazy()} set to true. Lazy beans
+     * are created on their first injection (or creation of a bean that depends on them).
      */
-    public SigewineOptions() {
-    }
+    @Builder.Default
+    private boolean lazyInitialization = false;
+
+    /**
+     * Directory of the persistent scan cache (see {@link ScanCache}), null to disable it. When enabled, the sorted bean
+     * definitions found by scanning are stored per package and reused by later scans while the classpath entries
+     * containing the package do not change. Useful when the classpath is the same between restarts, e.g. in container
+     * images.
+     */
+    @Builder.Default
+    private Path scanCacheDirectory = null;
 }
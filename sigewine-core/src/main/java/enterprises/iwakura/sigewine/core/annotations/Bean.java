@@ -1,6 +1,7 @@
 package enterprises.iwakura.sigewine.core.annotations;
 
 import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -31,4 +32,20 @@ public @interface Bean {
      * @return The name of the bean.
      */
     String name() default "";
+
+    /**
+     * Specifies whether the bean is lazy. Lazy beans are created on their first injection (or creation of a bean that
+     * depends on them) instead of when scanning. Only applies to classes and methods.
+     *
+     * @return True if the bean is lazy.
+     */
+    boolean lazy() default false;
+
+    /**
+     * Specifies the name of the scope of the bean, e.g. {@link BeanScope#PROTOTYPE} to create a new instance on every
+     * injection. Only applies to classes and methods.
+     *
+     * @return The name of the scope.
+     */
+    String scope() default BeanScope.SINGLETON;
 }
@@ -0,0 +1,59 @@
+package enterprises.iwakura.sigewine.core.aot;
+
+import java.util.List;
+
+import enterprises.iwakura.sigewine.core.Sigewine;
+
+/**
+ * Ahead-of-time generated context, which registers beans by calling their constructors and factory methods directly in
+ * a precomputed dependency order. This skips classpath scanning, bean scoring and reflective instantiation.
+ * <p>
+ * Implementations are generated by {@code sigewine-processor} when the {@code sigewine.aot} processor option is
+ * enabled, and are loaded by {@link Sigewine#scan(String, ClassLoader)} with {@link java.util.ServiceLoader}.
+ * </p>
+ */
+public interface GeneratedContext {
+
+    /**
+     * Gets binary names of bean classes and of classes declaring method beans registered by this context.
+     *
+     * @return List of binary class names
+     */
+    List<String> getBeanClassNames();
+
+    /**
+     * Registers all beans within the package (or its subpackages) in the dependency order.
+     *
+     * @param sigewine    Sigewine instance to register the beans to
+     * @param packageName Package name to register the beans of. Empty string registers all beans.
+     */
+    void register(Sigewine sigewine, String packageName);
+
+    /**
+     * Checks if this context contains any beans within the package (or its subpackages).
+     *
+     * @param packageName Package name to check
+     *
+     * @return True if this context contains beans of the package, false otherwise
+     */
+    default boolean covers(String packageName) {
+        for (String beanClassName : getBeanClassNames()) {
+            if (isInPackage(beanClassName, packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the class is within the package (or its subpackages).
+     *
+     * @param className   Binary name of the class
+     * @param packageName Package name. Empty string matches all classes.
+     *
+     * @return True if the class is within the package, false otherwise
+     */
+    static boolean isInPackage(String className, String packageName) {
+        return packageName.isEmpty() || className.startsWith(packageName + ".");
+    }
+}
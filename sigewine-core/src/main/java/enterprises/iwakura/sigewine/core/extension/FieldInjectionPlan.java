@@ -0,0 +1,181 @@
+package enterprises.iwakura.sigewine.core.extension;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.utils.BeanAccessor;
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Plan of injecting beans into fields of a class annotated with {@link Bean}, excluding collections.
+ * <p>
+ * The plan takes the injectable fields from the class's {@link ClassMetadata} and pairs each with the bean definition
+ * of the injected bean and a {@link VarHandle} obtained through
+ * {@link MethodHandles#privateLookupIn(Class, MethodHandles.Lookup)}, so injecting the fields requires no reflection.
+ * Plans are cached per class in a {@link ClassValue}.
+ * </p>
+ */
+@Slf4j
+@Getter
+public class FieldInjectionPlan {
+
+    private static final ClassValue<FieldInjectionPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected FieldInjectionPlan computeValue(Class<?> type) {
+            return new FieldInjectionPlan(type);
+        }
+    };
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * Class the plan injects.
+     */
+    private final Class<?> clazz;
+
+    /**
+     * Injectable fields, in the order of {@link ClassMetadata#getInjectableFields()}.
+     */
+    private final List<InjectionPoint> injectionPoints;
+
+    /**
+     * Creates the plan of the class.
+     *
+     * @param clazz Class to create the plan of
+     */
+    protected FieldInjectionPlan(Class<?> clazz) {
+        final var injectionPoints = new ArrayList<InjectionPoint>();
+        for (Field field : ClassMetadata.of(clazz).getInjectableFields()) {
+            injectionPoints.add(InjectionPoint.of(field, field.getAnnotation(Bean.class)));
+        }
+
+        this.clazz = clazz;
+        this.injectionPoints = List.copyOf(injectionPoints);
+
+        if (!injectionPoints.isEmpty()) {
+            log.debug("Created field injection plan of class '{}' with '{}' fields", clazz.getName(), injectionPoints.size());
+        }
+    }
+
+    /**
+     * Gets the cached plan of the class, creating it on first use.
+     *
+     * @param clazz Class to get the plan of
+     *
+     * @return Field injection plan of the class
+     */
+    public static FieldInjectionPlan of(Class<?> clazz) {
+        return PLANS.get(clazz);
+    }
+
+    /**
+     * Checks whether the class has no fields to inject.
+     *
+     * @return True if there are no fields to inject
+     */
+    public boolean isEmpty() {
+        return injectionPoints.isEmpty();
+    }
+
+    /**
+     * Field to inject.
+     *
+     * @param field          Field to inject
+     * @param beanDefinition Bean definition of the injected bean, or null if the field is a {@link BeanAccessor}
+     * @param getter         Getter of the field, of type {@code (Object)Object}
+     * @param setter         Setter of the field, of type {@code (Object,Object)void}
+     */
+    public record InjectionPoint(Field field, BeanDefinition beanDefinition, MethodHandle getter, MethodHandle setter) {
+
+        /**
+         * Resolves the handles of the field.
+         *
+         * @param field      Field annotated with {@link Bean}
+         * @param annotation Annotation of the field
+         *
+         * @return Injection point of the field
+         *
+         * @throws IllegalArgumentException if the field is static and final, and not a {@link BeanAccessor}
+         */
+        @SneakyThrows
+        static InjectionPoint of(Field field, Bean annotation) {
+            final var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            final var isStatic = Modifier.isStatic(field.getModifiers());
+            final var isBeanAccessor = BeanAccessor.class.isAssignableFrom(field.getType());
+
+            if (isStatic && Modifier.isFinal(field.getModifiers()) && !isBeanAccessor) {
+                throw new IllegalArgumentException("Field %s in class %s annotated with @Bean must not be static and final".formatted(
+                    field.getName(), field.getDeclaringClass().getName()));
+            }
+
+            MethodHandle getter;
+            MethodHandle setter = null;
+            if (isStatic) {
+                getter = MethodHandles.dropArguments(lookup.unreflectGetter(field), 0, Object.class);
+            } else {
+                final var varHandle = lookup.unreflectVarHandle(field);
+                getter = varHandle.toMethodHandle(VarHandle.AccessMode.GET);
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    setter = varHandle.toMethodHandle(VarHandle.AccessMode.SET);
+                }
+            }
+
+            if (setter == null && !isBeanAccessor) {
+                // Static and final instance fields cannot be written through a VarHandle, but their accessible setter can
+                field.setAccessible(true);
+                setter = lookup.unreflectSetter(field);
+                if (isStatic) {
+                    setter = MethodHandles.dropArguments(setter, 0, Object.class);
+                }
+            }
+
+            final var beanDefinition = isBeanAccessor ? null : BeanDefinition.of(field.getType(), annotation.name());
+            return new InjectionPoint(field, beanDefinition, getter.asType(GETTER_TYPE),
+                setter != null ? setter.asType(SETTER_TYPE) : null);
+        }
+
+        /**
+         * Checks whether the field is a {@link BeanAccessor}.
+         *
+         * @return True if the field is a bean accessor
+         */
+        public boolean isBeanAccessor() {
+            return beanDefinition == null;
+        }
+
+        /**
+         * Gets the value of the field.
+         *
+         * @param bean Bean to get the value from
+         *
+         * @return Value of the field
+         */
+        @SneakyThrows
+        public Object get(Object bean) {
+            return (Object) getter.invokeExact(bean);
+        }
+
+        /**
+         * Sets the value of the field.
+         *
+         * @param bean  Bean to set the value in
+         * @param value Value to set
+         */
+        @SneakyThrows
+        public void set(Object bean, Object value) {
+            setter.invokeExact(bean, value);
+        }
+    }
+}
@@ -1,16 +1,15 @@
 package enterprises.iwakura.sigewine.core.extension;
 
-import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
 
 import enterprises.iwakura.sigewine.core.BeanDefinition;
 import enterprises.iwakura.sigewine.core.Sigewine;
 import enterprises.iwakura.sigewine.core.annotations.Bean;
 import enterprises.iwakura.sigewine.core.utils.BeanAccessor;
-import enterprises.iwakura.sigewine.core.utils.ReflectionUtil;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,6 +19,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class InjectBeanExtension extends SigewineExtension {
 
+    /**
+     * Fields of singleton beans injected with new instances of their classes, as the classes were not registered as
+     * beans yet. Revisited when later scans register beans, until the beans are registered.
+     */
+    private final Queue<UnmanagedInjection> unmanagedInjections = new ConcurrentLinkedQueue<>();
+
     /**
      * Creates a new InjectBeanExtension with specified priority.
      *
@@ -34,46 +39,111 @@ public class InjectBeanExtension extends SigewineExtension {
     public void processBeans(Sigewine sigewine) {
         log.debug("Going through beans to inject itself");
         for (Map.Entry<BeanDefinition, Object> beanEntry : sigewine.getSingletonBeans().entrySet()) {
-            final var beanDefinition = beanEntry.getKey();
-            final var bean = Optional.ofNullable(sigewine.getProxiedOriginalBeans().get(beanDefinition))
-                .orElse(beanEntry.getValue());
-            log.debug("Going through bean '{}': '{}'", beanDefinition, bean);
-            final var declaredFields = ReflectionUtil.getAllFields(bean.getClass());
-
-            for (var field : declaredFields) {
-                var annotationPresent = field.isAnnotationPresent(Bean.class);
-                var isCollection = Collection.class.isAssignableFrom(field.getType());
-                var isBeanAccessor = BeanAccessor.class.isAssignableFrom(field.getType());
-
-                if (annotationPresent && !isCollection) {
-                    if (isBeanAccessor) {
-                        injectBeanAccessor(sigewine, field, bean);
-                    } else {
-                        injectBean(sigewine, field, bean);
-                    }
+            injectFields(sigewine, beanEntry.getKey(), beanEntry.getValue(), true);
+        }
+    }
+
+    @Override
+    public void processBeans(Sigewine sigewine, Collection<BeanDefinition> newBeans) {
+        log.debug("Going through '{}' new beans to inject itself", newBeans.size());
+        for (BeanDefinition beanDefinition : newBeans) {
+            final var bean = sigewine.getSingletonBean(beanDefinition);
+            if (bean != null) {
+                injectFields(sigewine, beanDefinition, bean, true);
+            }
+        }
+    }
+
+    /**
+     * Injects the new beans into the fields of the beans registered before, which were injected with new instances of
+     * their classes while the classes were not registered as beans yet. Only those fields are revisited, so repeated
+     * scans cost only what they add. Fields whose beans are registered as scoped beans (e.g. lazy or prototype beans)
+     * are not re-injected, as that would create instances of the beans.
+     *
+     * @param sigewine the Sigewine instance containing the beans to process
+     * @param newBeans the definitions of the new beans, in the registration order
+     */
+    @Override
+    public void processEarlierBeans(Sigewine sigewine, Collection<BeanDefinition> newBeans) {
+        if (newBeans.isEmpty() || unmanagedInjections.isEmpty()) {
+            return;
+        }
+
+        final var iterator = unmanagedInjections.iterator();
+        while (iterator.hasNext()) {
+            final var unmanagedInjection = iterator.next();
+            final var injectionPoint = unmanagedInjection.injectionPoint();
+            if (!sigewine.isBeanRegistered(injectionPoint.beanDefinition())) {
+                continue;
+            }
+
+            iterator.remove();
+            final var bean = unmanagedInjection.bean();
+            final var injectedBean = sigewine.findSingletonBean(injectionPoint.beanDefinition());
+            if (injectedBean != null && injectionPoint.get(bean) != injectedBean) {
+                log.debug("Re-injecting new bean '{}' into field '{}' in class '{}'",
+                    injectionPoint.beanDefinition(), injectionPoint.field().getName(), bean.getClass().getName()
+                );
+                injectionPoint.set(bean, injectedBean);
+            }
+        }
+    }
+
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
+    @Override
+    public void processBean(Sigewine sigewine, BeanDefinition beanDefinition, Object bean) {
+        injectFields(sigewine, beanDefinition, bean, true);
+    }
+
+    @Override
+    public void processScopedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
+        injectFields(sigewine, beanDefinition, beanInstance, false);
+    }
+
+    /**
+     * Injects beans into fields of the bean annotated with {@link Bean} by the bean class's
+     * {@link FieldInjectionPlan}. If the bean is proxied, the fields of the original bean are injected.
+     *
+     * @param sigewine       the Sigewine instance to inject the beans from
+     * @param beanDefinition the definition of the bean
+     * @param beanInstance   the instance of the bean
+     * @param singleton      whether the bean is a singleton, whose fields are re-injected once their beans are registered
+     */
+    private void injectFields(Sigewine sigewine, BeanDefinition beanDefinition, Object beanInstance, boolean singleton) {
+        final var originalBean = sigewine.getProxiedOriginalBeans().get(beanDefinition);
+        final var bean = originalBean != null ? originalBean : beanInstance;
+        final var injectionPlan = FieldInjectionPlan.of(bean.getClass());
+        if (injectionPlan.isEmpty()) {
+            return;
+        }
+
+        log.debug("Going through bean '{}': '{}'", beanDefinition, bean);
+        for (var injectionPoint : injectionPlan.getInjectionPoints()) {
+            if (injectionPoint.isBeanAccessor()) {
+                injectBeanAccessor(sigewine, injectionPoint, bean);
+            } else {
+                if (singleton && !sigewine.isBeanRegistered(injectionPoint.beanDefinition())) {
+                    unmanagedInjections.add(new UnmanagedInjection(bean, injectionPoint));
                 }
+                injectBean(sigewine, injectionPoint, bean);
             }
         }
     }
 
-    @SneakyThrows
-    private static void injectBean(Sigewine sigewine, Field field, Object bean) {
-        var specifiedBeanName = Optional.ofNullable(field.getAnnotation(Bean.class).name()).orElse("");
-        log.debug("Injecting bean into field '{}' of class '{}' with name '{}' in class '{}'",
-            field.getName(), field.getType(), specifiedBeanName, bean.getClass().getName()
+    private static void injectBean(Sigewine sigewine, FieldInjectionPlan.InjectionPoint injectionPoint, Object bean) {
+        log.debug("Injecting bean '{}' into field '{}' in class '{}'",
+            injectionPoint.beanDefinition(), injectionPoint.field().getName(), bean.getClass().getName()
         );
-        var injectedBean = sigewine.inject(field.getType(), specifiedBeanName);
-        var wasAccessible = field.canAccess(bean);
-        field.setAccessible(true);
-        field.set(bean, injectedBean);
-        field.setAccessible(wasAccessible);
+        injectionPoint.set(bean, sigewine.inject(injectionPoint.beanDefinition()));
     }
 
-    @SneakyThrows
-    private void injectBeanAccessor(Sigewine sigewine, Field field, Object bean) {
-        var wasAccessible = field.canAccess(bean);
-        field.setAccessible(true);
-        var beanAccessor = (BeanAccessor<?>) field.get(bean);
+    private static void injectBeanAccessor(Sigewine sigewine, FieldInjectionPlan.InjectionPoint injectionPoint, Object bean) {
+        final var field = injectionPoint.field();
+        final var beanAccessor = (BeanAccessor<?>) injectionPoint.get(bean);
 
         if (beanAccessor == null) {
             throw new IllegalArgumentException(
@@ -84,15 +154,29 @@ public class InjectBeanExtension extends SigewineExtension {
         log.debug("Injecting BeanAccessor into field '{}' of class '{}' for bean type '{}' with name '{}' in class '{}'",
             field.getName(), field.getType(), beanAccessor.getClazz(), beanAccessor.getBeanName(), bean.getClass().getName()
         );
+        // Scoped beans are provided directly by their scopes, e.g. the instance of the current request scope
         //noinspection rawtypes,unchecked
-        beanAccessor.setBeanSupplier((Supplier)() -> {
-            return sigewine.inject(beanAccessor.getClazz(), beanAccessor.getBeanName());
-        });
-        field.setAccessible(wasAccessible);
+        beanAccessor.setBeanSupplier((Supplier) sigewine.getBeanSupplier(beanAccessor.getClazz(), beanAccessor.getBeanName()));
     }
 
     @Override
     public Object processCreatedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
         return beanInstance;
     }
+
+    @Override
+    public boolean isInterestedIn(Class<?> beanClass) {
+        // Fields are injected once all beans are registered, not when the instance is created
+        return false;
+    }
+
+    /**
+     * Field of a singleton bean injected with a new instance of its class.
+     *
+     * @param bean           Bean the field belongs to, the original bean if the bean is proxied
+     * @param injectionPoint Injected field
+     */
+    private record UnmanagedInjection(Object bean, FieldInjectionPlan.InjectionPoint injectionPoint) {
+
+    }
 }
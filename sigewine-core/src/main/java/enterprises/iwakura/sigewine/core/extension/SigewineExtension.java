@@ -1,5 +1,7 @@
 package enterprises.iwakura.sigewine.core.extension;
 
+import java.util.Collection;
+
 import enterprises.iwakura.sigewine.core.BeanDefinition;
 import enterprises.iwakura.sigewine.core.Sigewine;
 import lombok.Getter;
@@ -24,6 +26,70 @@ public abstract class SigewineExtension {
      */
     public abstract void processBeans(Sigewine sigewine);
 
+    /**
+     * Processes the singleton beans registered since extensions last processed beans, i.e. the beans added by the
+     * current scan. Called at the end of every scan, so repeated scans (e.g. one per module) only process what they
+     * add. Delegates to {@link #processBeans(Sigewine)} by default, which processes all beans again.
+     *
+     * @param sigewine the Sigewine instance containing the beans to process
+     * @param newBeans the definitions of the new beans, in the registration order
+     */
+    public void processBeans(Sigewine sigewine, Collection<BeanDefinition> newBeans) {
+        processBeans(sigewine);
+    }
+
+    /**
+     * Processes again the singleton beans registered before the current scan that are affected by the beans it
+     * registered, e.g. beans whose fields were injected with instances of classes that are registered as beans only now.
+     * Called at the end of every scan, after the new beans are processed. Does nothing by default.
+     *
+     * @param sigewine the Sigewine instance containing the beans to process
+     * @param newBeans the definitions of the new beans, in the registration order
+     */
+    public void processEarlierBeans(Sigewine sigewine, Collection<BeanDefinition> newBeans) {
+    }
+
+    /**
+     * Returns whether {@link #processBean(Sigewine, BeanDefinition, Object)} is safe to call from multiple threads at
+     * once. If true, Sigewine splits the beans registered by a scan into chunks (see
+     * {@link enterprises.iwakura.sigewine.core.SigewineOptions#getParallelProcessingChunkSize()}) and processes them in
+     * parallel by {@link #processBean(Sigewine, BeanDefinition, Object)} instead of calling
+     * {@link #processBeans(Sigewine, Collection)}. Returns false by default.
+     *
+     * @return true if the extension may process beans in parallel
+     */
+    public boolean isParallelSafe() {
+        return false;
+    }
+
+    /**
+     * Processes a single singleton bean registered since extensions last processed beans. Called only if the extension
+     * is parallel-safe (see {@link #isParallelSafe()}), possibly from multiple threads at once. Does nothing by
+     * default.
+     *
+     * @param sigewine       the Sigewine instance containing the bean
+     * @param beanDefinition the definition of the bean
+     * @param bean           the instance of the bean
+     */
+    public void processBean(Sigewine sigewine, BeanDefinition beanDefinition, Object bean) {
+    }
+
+    /**
+     * Processes the class instantiated for a class bean before its instance is created, e.g. to replace it with a
+     * generated subclass, so the bean is created as an instance of the subclass. Called only if the extension is
+     * interested in the bean class (see {@link #isInterestedIn(Class)}). If any extension replaces the class, its
+     * instance is created through its only public constructor instead of the bean's instance factory. Returns the class
+     * unchanged by default.
+     *
+     * @param beanClass      the class to instantiate, possibly replaced by extensions processed before
+     * @param beanDefinition the definition of the bean being created
+     * @param sigewine       the Sigewine instance that manages the bean
+     * @return the class to instantiate, which must be the given class or its subclass
+     */
+    public Class<?> processBeanClass(Class<?> beanClass, BeanDefinition beanDefinition, Sigewine sigewine) {
+        return beanClass;
+    }
+
     /**
      * Processes a newly created bean instance.
      *
@@ -34,4 +100,31 @@ public abstract class SigewineExtension {
      */
     public abstract Object processCreatedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine);
 
+    /**
+     * Returns whether created instances of the given class should be passed to
+     * {@link #processBeanClass(Class, BeanDefinition, Sigewine)} and
+     * {@link #processCreatedBeanInstance(Object, BeanDefinition, Sigewine)}, e.g. by checking the annotations or
+     * supertypes of the class. Evaluated once per class and scan, so the result must not change during a scan. Returns
+     * true by default, i.e. the extension processes all created beans.
+     *
+     * @param beanClass the class of the bean
+     * @return true if the extension should process instances of the class
+     */
+    public boolean isInterestedIn(Class<?> beanClass) {
+        return true;
+    }
+
+    /**
+     * Processes a new instance of a scoped bean, i.e. a lazy singleton bean once it is created on first use, or every
+     * new instance of a bean of another scope, such as prototype. Scoped beans are not passed to
+     * {@link #processBeans(Sigewine)}, so this is where they should get the same processing. Called after
+     * {@link #processCreatedBeanInstance(Object, BeanDefinition, Sigewine)} and after the scan that registered the bean
+     * has finished. Does nothing by default.
+     *
+     * @param beanInstance   the new instance of the scoped bean
+     * @param beanDefinition the definition of the scoped bean
+     * @param sigewine       the Sigewine instance that manages the bean
+     */
+    public void processScopedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
+    }
 }
@@ -0,0 +1,56 @@
+package enterprises.iwakura.sigewine.core.scope;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Represents a scope of beans, deciding when instances of a bean are created and which instance is injected.
+ * <p>
+ * Beans specify their scope by name with {@link Bean#scope()}. Scopes are added to {@link Sigewine} with
+ * {@link Sigewine#addScope(BeanScope)}; the {@link SingletonScope}, {@link PrototypeScope}
+ * and {@link RequestScope} are always available.
+ * </p>
+ */
+@Getter
+@RequiredArgsConstructor
+public abstract class BeanScope {
+
+    /**
+     * Name of the singleton scope, the default scope of beans.
+     */
+    public static final String SINGLETON = "singleton";
+
+    /**
+     * Name of the prototype scope.
+     */
+    public static final String PROTOTYPE = "prototype";
+
+    /**
+     * Name of the request scope.
+     */
+    public static final String REQUEST = "request";
+
+    /**
+     * Name of the scope, used in {@link Bean#scope()}.
+     */
+    protected final @NonNull String name;
+
+    /**
+     * Creates the provider of instances of the bean within this scope. Called once per bean when it is registered, so
+     * the provider should do as little work as possible on each call.
+     *
+     * @param beanDefinition the definition of the bean
+     * @param factory        the factory creating a new instance of the bean, with its creation plan already resolved
+     * @param initializer    the initializer that must be called with every new instance before it is provided
+     *
+     * @return the provider of the bean's instances
+     */
+    public abstract Supplier<Object> createProvider(BeanDefinition beanDefinition, Supplier<?> factory, Consumer<Object> initializer);
+}
@@ -0,0 +1,31 @@
+package enterprises.iwakura.sigewine.core.scope;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+
+/**
+ * Scope that creates a new instance of the bean every time it is injected.
+ */
+public class PrototypeScope extends BeanScope {
+
+    /**
+     * Creates the prototype scope.
+     */
+    public PrototypeScope() {
+        super(PROTOTYPE);
+    }
+
+    @Override
+    public Supplier<Object> createProvider(BeanDefinition beanDefinition, Supplier<?> factory, Consumer<Object> initializer) {
+        return () -> {
+            final Object instance = factory.get();
+            if (instance == null) {
+                throw new IllegalStateException("Factory of prototype bean " + beanDefinition + " returned null");
+            }
+            initializer.accept(instance);
+            return instance;
+        };
+    }
+}
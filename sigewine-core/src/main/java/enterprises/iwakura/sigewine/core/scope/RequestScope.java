@@ -0,0 +1,250 @@
+package enterprises.iwakura.sigewine.core.scope;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.LazyBean;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.utils.BeanAccessor;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Scope with one instance of the bean per {@link Sigewine#runInScope(Runnable)} call, e.g. per served request.
+ * <p>
+ * The instances of a scope are held by a context that is bound to the running code with a {@code ScopedValue} if the
+ * runtime provides it, otherwise with a {@link ThreadLocal}. Each bean gets a slot in the context when it is
+ * registered, so providing an instance is a single read of the bound context followed by an array access, without any
+ * registry lookup. Instances are created on first use within the scope and are dropped when the scope ends.
+ * </p>
+ * <p>
+ * Beans of wider scopes (e.g. singletons) should not hold instances of request beans directly, as they outlive the
+ * scope. Use a {@link BeanAccessor} instead, which provides the instance of the current scope on every call.
+ * </p>
+ */
+@Slf4j
+public class RequestScope extends BeanScope {
+
+    /**
+     * Binding of the context of the current scope.
+     */
+    private final ContextBinding binding = ContextBinding.create();
+
+    /**
+     * Number of slots assigned to beans of this scope.
+     */
+    private final AtomicInteger slots = new AtomicInteger();
+
+    /**
+     * Creates the request scope.
+     */
+    public RequestScope() {
+        super(REQUEST);
+    }
+
+    @Override
+    public Supplier<Object> createProvider(BeanDefinition beanDefinition, Supplier<?> factory, Consumer<Object> initializer) {
+        final int slot = slots.getAndIncrement();
+        return () -> {
+            final var context = binding.get();
+            if (context == null) {
+                throw new IllegalStateException("Bean " + beanDefinition + " of scope '" + name + "' used outside of "
+                    + "Sigewine#runInScope; inject it through a BeanAccessor into beans of wider scopes");
+            }
+            return context.get(slot, beanDefinition, factory, initializer);
+        };
+    }
+
+    /**
+     * Runs the action within a new scope. Nested calls create a new scope for their duration.
+     *
+     * @param action Action to run
+     * @param <T>    Type of the action's result
+     *
+     * @return Result of the action
+     */
+    public <T> T run(@NonNull Supplier<T> action) {
+        return binding.run(new Context(slots.get()), action);
+    }
+
+    /**
+     * Checks whether the calling code runs within this scope.
+     *
+     * @return True if in scope, false otherwise
+     */
+    public boolean isActive() {
+        return binding.get() != null;
+    }
+
+    /**
+     * Instances of request beans within one scope, indexed by their slots. The instances are created under the lock of
+     * the context, as beans of the scope may refer to each other (see {@link LazyBean}). It is a {@link ReentrantLock}
+     * instead of a monitor, so virtual threads are not pinned while the instances are created.
+     */
+    private static final class Context {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile LazyBean[] instances;
+
+        private Context(int slots) {
+            this.instances = new LazyBean[slots];
+        }
+
+        private Object get(int slot, BeanDefinition beanDefinition, Supplier<?> factory, Consumer<Object> initializer) {
+            final var current = instances;
+            if (slot < current.length && current[slot] != null) {
+                return current[slot].get();
+            }
+            return getOrCreateHolder(slot, beanDefinition, factory, initializer).get();
+        }
+
+        private LazyBean getOrCreateHolder(int slot, BeanDefinition beanDefinition, Supplier<?> factory, Consumer<Object> initializer) {
+            lock.lock();
+            try {
+                var current = instances;
+                if (slot < current.length && current[slot] != null) {
+                    return current[slot];
+                }
+                // Copied on write, so the holders are safely published to other threads sharing the scope
+                current = Arrays.copyOf(current, Math.max(current.length, slot + 1));
+                current[slot] = new LazyBean(beanDefinition, factory, initializer, lock);
+                instances = current;
+                return current[slot];
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Binds the context of the current scope to the running code.
+     */
+    private interface ContextBinding {
+
+        /**
+         * Gets the bound context.
+         *
+         * @return Bound context, or null if not in scope
+         */
+        Context get();
+
+        /**
+         * Runs the action with the context bound.
+         *
+         * @param context Context to bind
+         * @param action  Action to run
+         * @param <T>     Type of the action's result
+         *
+         * @return Result of the action
+         */
+        <T> T run(Context context, Supplier<T> action);
+
+        /**
+         * Creates a binding backed by {@code ScopedValue}, or by {@link ThreadLocal} if scoped values are not
+         * available.
+         *
+         * @return Context binding
+         */
+        static ContextBinding create() {
+            try {
+                final var binding = new ScopedValueBinding();
+                log.debug("Binding request scopes with ScopedValue");
+                return binding;
+            } catch (Throwable throwable) {
+                log.info("ScopedValue is not available ({}), binding request scopes with ThreadLocal", throwable.toString());
+                log.debug("ScopedValue binding failed", throwable);
+                return new ThreadLocalBinding();
+            }
+        }
+    }
+
+    /**
+     * Binding backed by a {@link ThreadLocal}, restoring the previous context when the action finishes.
+     */
+    private static final class ThreadLocalBinding implements ContextBinding {
+
+        private final ThreadLocal<Context> current = new ThreadLocal<>();
+
+        @Override
+        public Context get() {
+            return current.get();
+        }
+
+        @Override
+        public <T> T run(Context context, Supplier<T> action) {
+            final var previous = current.get();
+            current.set(context);
+            try {
+                return action.get();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        }
+    }
+
+    /**
+     * Binding backed by a {@code ScopedValue}, accessed through method handles, as it is a preview API on Java 21.
+     * Only methods available in all versions since then are used with arguments accepted by all of them, e.g. not
+     * {@code orElse(null)}, which rejects null since Java 25.
+     */
+    private static final class ScopedValueBinding implements ContextBinding {
+
+        private final Object scopedValue;
+        private final MethodHandle isBound;
+        private final MethodHandle getBound;
+        private final MethodHandle where;
+        private final MethodHandle run;
+
+        @SneakyThrows
+        private ScopedValueBinding() {
+            final var lookup = MethodHandles.publicLookup();
+            final var scopedValueClass = Class.forName("java.lang.ScopedValue");
+            final var carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+
+            this.scopedValue = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass)).invoke();
+            this.isBound = lookup.findVirtual(scopedValueClass, "isBound", MethodType.methodType(boolean.class))
+                .bindTo(scopedValue);
+            this.getBound = lookup.findVirtual(scopedValueClass, "get", MethodType.methodType(Object.class))
+                .bindTo(scopedValue);
+            this.where = lookup.findStatic(scopedValueClass, "where", MethodType.methodType(carrierClass, scopedValueClass, Object.class))
+                .bindTo(scopedValue)
+                .asType(MethodType.methodType(Object.class, Object.class));
+            this.run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+
+            // Verify the binding works, so an unusable implementation falls back to ThreadLocal
+            final var probe = new Context(0);
+            if (run(probe, this::get) != probe || get() != null) {
+                throw new IllegalStateException("ScopedValue binding does not work");
+            }
+        }
+
+        @Override
+        @SneakyThrows
+        public Context get() {
+            return (boolean) isBound.invokeExact() ? (Context) (Object) getBound.invokeExact() : null;
+        }
+
+        @Override
+        @SneakyThrows
+        @SuppressWarnings("unchecked")
+        public <T> T run(Context context, Supplier<T> action) {
+            final var result = new Object[1];
+            final Object carrier = where.invokeExact((Object) context);
+            run.invokeExact(carrier, (Runnable) () -> result[0] = action.get());
+            return (T) result[0];
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package enterprises.iwakura.sigewine.core.scope;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.LazyBean;
+
+/**
+ * Scope with a single instance of the bean. Singleton beans are created when scanning, unless they are lazy, in which
+ * case the provider created by this scope creates the instance on first use. Lazy singletons of the scope are created
+ * under one shared lock, as they may refer to each other (see {@link LazyBean}).
+ */
+public class SingletonScope extends BeanScope {
+
+    /**
+     * Lock lazy singletons of this scope are created under.
+     */
+    private final ReentrantLock initializationLock = new ReentrantLock();
+
+    /**
+     * Creates the singleton scope.
+     */
+    public SingletonScope() {
+        super(SINGLETON);
+    }
+
+    @Override
+    public Supplier<Object> createProvider(BeanDefinition beanDefinition, Supplier<?> factory, Consumer<Object> initializer) {
+        return new LazyBean(beanDefinition, factory, initializer, initializationLock);
+    }
+}
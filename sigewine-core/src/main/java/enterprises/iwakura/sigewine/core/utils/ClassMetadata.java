@@ -0,0 +1,214 @@
+package enterprises.iwakura.sigewine.core.utils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+/**
+ * Reflective metadata of a class used by Sigewine, resolved once per class.
+ * <p>
+ * Each JDK call such as {@link Class#getConstructors()} or {@link Class#getDeclaredFields()} copies arrays, and the
+ * same metadata is needed when scanning, sorting, creating and injecting beans. The metadata is cached per class in a
+ * {@link ClassValue}, so it does not keep the classes from being unloaded.
+ * </p>
+ * <p>
+ * Apart from the {@link Bean} annotation, the metadata is resolved on first use. Resolving members may fail with
+ * {@link LinkageError}s (e.g. {@link NoClassDefFoundError} for a missing optional dependency in a signature), which
+ * then only affects the callers needing those members, not every caller asking for the metadata of the class.
+ * </p>
+ */
+@Getter
+public final class ClassMetadata {
+
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    /**
+     * Class of the metadata.
+     */
+    private final Class<?> clazz;
+
+    /**
+     * The {@link Bean} annotation of the class, null if not annotated.
+     */
+    private final Bean beanAnnotation;
+
+    /**
+     * Public constructors of the class, resolved on first use.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile List<Constructor<?>> constructors;
+
+    /**
+     * Fields of the class and its superclasses, resolved on first use.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile List<Field> fields;
+
+    /**
+     * Fields annotated with {@link Bean} that are injected, resolved on first use.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile List<Field> injectableFields;
+
+    /**
+     * Methods declared by the class annotated with {@link Bean}, resolved on first use.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile List<Method> beanMethods;
+
+    /**
+     * Parameters of the only public constructor, resolved on first use.
+     */
+    @Getter(lombok.AccessLevel.NONE)
+    private volatile List<ConstructorParameter> constructorParameters;
+
+    private ClassMetadata(Class<?> clazz) {
+        this.clazz = clazz;
+        this.beanAnnotation = clazz.getAnnotation(Bean.class);
+    }
+
+    /**
+     * Gets the cached metadata of the class, resolving it on first use.
+     *
+     * @param clazz Class to get the metadata of
+     *
+     * @return Metadata of the class
+     */
+    public static ClassMetadata of(Class<?> clazz) {
+        return METADATA.get(clazz);
+    }
+
+    /**
+     * Gets the public constructors of the class.
+     *
+     * @return Public constructors of the class
+     */
+    public List<Constructor<?>> getConstructors() {
+        var constructors = this.constructors;
+        if (constructors == null) {
+            constructors = List.of(clazz.getConstructors());
+            this.constructors = constructors;
+        }
+        return constructors;
+    }
+
+    /**
+     * Gets the fields of the class and its superclasses, in the order of {@link ReflectionUtil#getAllFields(Class)}.
+     *
+     * @return Fields of the class and its superclasses
+     */
+    public List<Field> getFields() {
+        var fields = this.fields;
+        if (fields == null) {
+            fields = List.of(ReflectionUtil.getAllFields(clazz));
+            this.fields = fields;
+        }
+        return fields;
+    }
+
+    /**
+     * Gets the fields annotated with {@link Bean} that are injected, i.e. excluding collections.
+     *
+     * @return Injectable fields of the class and its superclasses
+     */
+    public List<Field> getInjectableFields() {
+        var injectableFields = this.injectableFields;
+        if (injectableFields == null) {
+            injectableFields = getFields().stream()
+                .filter(field -> field.isAnnotationPresent(Bean.class))
+                .filter(field -> !Collection.class.isAssignableFrom(field.getType()))
+                .toList();
+            this.injectableFields = injectableFields;
+        }
+        return injectableFields;
+    }
+
+    /**
+     * Gets the methods declared by the class annotated with {@link Bean}.
+     *
+     * @return Bean methods of the class
+     */
+    public List<Method> getBeanMethods() {
+        var beanMethods = this.beanMethods;
+        if (beanMethods == null) {
+            beanMethods = Stream.of(clazz.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Bean.class))
+                .toList();
+            this.beanMethods = beanMethods;
+        }
+        return beanMethods;
+    }
+
+    /**
+     * Checks whether the class has exactly one public constructor.
+     *
+     * @return True if there is exactly one public constructor
+     */
+    public boolean hasOneConstructor() {
+        return getConstructors().size() == 1;
+    }
+
+    /**
+     * Gets the only public constructor of the class.
+     *
+     * @return Constructor of the class
+     *
+     * @throws IllegalArgumentException if the class does not have exactly one public constructor
+     */
+    public Constructor<?> getConstructor() {
+        Preconditions.checkOneConstructor(clazz);
+        return getConstructors().get(0);
+    }
+
+    /**
+     * Gets the parameters of the only public constructor with their bean definitions and element types, resolving
+     * them on first use.
+     *
+     * @return Parameters of the constructor
+     *
+     * @throws IllegalArgumentException if the class does not have exactly one public constructor, or a parameter's
+     *                                  generic type cannot be determined
+     * @throws ClassCastException       if a collection or supplier parameter is not parameterized
+     */
+    public List<ConstructorParameter> getConstructorParameters() {
+        var constructorParameters = this.constructorParameters;
+        if (constructorParameters == null) {
+            final var parameters = new ArrayList<ConstructorParameter>();
+            for (Parameter parameter : getConstructor().getParameters()) {
+                final var elementType = Collection.class.isAssignableFrom(parameter.getType()) || parameter.getType() == Supplier.class
+                    ? ReflectionUtil.getFirstGenericParameterType(parameter)
+                    : null;
+                parameters.add(new ConstructorParameter(parameter, BeanDefinition.of(parameter), elementType));
+            }
+            constructorParameters = List.copyOf(parameters);
+            this.constructorParameters = constructorParameters;
+        }
+        return constructorParameters;
+    }
+
+    /**
+     * Parameter of a constructor.
+     *
+     * @param parameter      Reflected parameter
+     * @param beanDefinition Bean definition of the parameter
+     * @param elementType    Element type if the parameter is a collection or a supplier, null otherwise
+     */
+    public record ConstructorParameter(Parameter parameter, BeanDefinition beanDefinition, Class<?> elementType) {
+
+    }
+}
@@ -27,12 +27,13 @@ public final class Preconditions {
      * @throws IllegalArgumentException if the class does not have a no-argument constructor.
      */
     public static void checkNoArgConstructor(Class<?> clazz) {
-        if (clazz.getConstructors().length == 0) {
+        final var constructors = ClassMetadata.of(clazz).getConstructors();
+        if (constructors.isEmpty()) {
             throw new IllegalArgumentException("Class " + clazz.getName() + " has no constructor");
         } else {
             boolean hasNoArgsConstructor = false;
 
-            for (var constructor : clazz.getConstructors()) {
+            for (var constructor : constructors) {
                 if (constructor.getParameterCount() == 0) {
                     hasNoArgsConstructor = true;
                     break;
@@ -51,7 +52,7 @@ public final class Preconditions {
      * @throws IllegalArgumentException if the class does not have exactly one constructor
      */
     public static void checkOneConstructor(Class<?> clazz) {
-        if (clazz.getConstructors().length != 1) {
+        if (!ClassMetadata.of(clazz).hasOneConstructor()) {
             throw new IllegalArgumentException("Class " + clazz.getName() + " must have exactly one constructor");
         }
     }
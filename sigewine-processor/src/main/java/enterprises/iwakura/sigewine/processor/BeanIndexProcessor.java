@@ -0,0 +1,283 @@
+package enterprises.iwakura.sigewine.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor that writes an index of all classes and methods annotated with
+ * {@code enterprises.iwakura.sigewine.core.annotations.Bean} into {@value #INDEX_LOCATION}. Classes annotated with an
+ * annotation that is itself (directly or transitively) annotated with {@code Bean} are indexed as well, so the processor
+ * looks at all compiled types, not only those annotated with {@code Bean}.
+ * <p>
+ * When the index is present on the classpath, Sigewine reads it instead of scanning the classpath with Reflections, so
+ * the scanning cost is proportional to the number of beans, not to the size of the classpath.
+ * </p>
+ * <p>
+ * The index is a UTF-8 text file with one entry per line. Columns are separated by a tab character:
+ * <ul>
+ *     <li>{@code class <binary class name> <bean name>}</li>
+ *     <li>{@code method <binary name of declaring class> <method name> <bean name>}</li>
+ * </ul>
+ * Lines starting with {@code #} are comments.
+ * </p>
+ * <p>
+ * When the {@value #AOT_OPTION} processor option is set to {@code true}, the processor also generates a
+ * {@code SigewineGeneratedContext} class that registers all beans by calling their constructors and factory methods
+ * directly, see {@link GeneratedContextWriter}. Its package can be set with the {@value #AOT_PACKAGE_OPTION} option and
+ * defaults to the common package of all beans. The class is generated in the first round that finds any beans, so that
+ * it is compiled like any other source. It is registered as a service only after the last round, unless later rounds
+ * found beans in sources generated by other processors, which it does not know about. In that case, Sigewine falls back
+ * to the index at runtime.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({BeanIndexProcessor.AOT_OPTION, BeanIndexProcessor.AOT_PACKAGE_OPTION})
+public class BeanIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Fully qualified name of the Bean annotation.
+     */
+    public static final String BEAN_ANNOTATION = "enterprises.iwakura.sigewine.core.annotations.Bean";
+
+    /**
+     * Location of the bean index within the class output.
+     */
+    public static final String INDEX_LOCATION = "META-INF/sigewine/beans.idx";
+
+    /**
+     * Processor option enabling generation of the ahead-of-time context.
+     */
+    public static final String AOT_OPTION = "sigewine.aot";
+
+    /**
+     * Processor option specifying the package of the ahead-of-time context.
+     */
+    public static final String AOT_PACKAGE_OPTION = "sigewine.aot.package";
+
+    /**
+     * Index entries collected over all processing rounds.
+     */
+    private final Set<String> entries = new LinkedHashSet<>();
+
+    /**
+     * Annotated classes and methods collected over all processing rounds.
+     */
+    private final List<Element> beanElements = new ArrayList<>();
+
+    /**
+     * Whether the ahead-of-time context was generated in any of the previous rounds.
+     */
+    private boolean contextGenerated;
+
+    /**
+     * Fully qualified name of the ahead-of-time context to register as a service, or null if there is none.
+     */
+    private String generatedContextName;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final var beanAnnotation = processingEnv.getElementUtils().getTypeElement(BEAN_ANNOTATION);
+        final var previousBeanCount = beanElements.size();
+
+        if (beanAnnotation != null) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(beanAnnotation)) {
+                if (element.getKind().isClass() || element.getKind().isInterface()) {
+                    final var typeElement = (TypeElement) element;
+                    if (typeElement.getKind() != ElementKind.ANNOTATION_TYPE) {
+                        beanElements.add(typeElement);
+                        entries.add(String.join("\t", "class", getBinaryName(typeElement), getBeanName(element, beanAnnotation)));
+                    }
+                } else if (element.getKind() == ElementKind.METHOD) {
+                    final var method = (ExecutableElement) element;
+                    final var declaringClass = (TypeElement) method.getEnclosingElement();
+                    beanElements.add(method);
+                    entries.add(String.join("\t", "method", getBinaryName(declaringClass), method.getSimpleName().toString(),
+                        getBeanName(element, beanAnnotation)));
+                }
+            }
+
+            for (Element element : roundEnv.getRootElements()) {
+                collectMetaAnnotatedTypes(element, beanAnnotation);
+            }
+        }
+
+        if (Boolean.parseBoolean(processingEnv.getOptions().get(AOT_OPTION)) && !roundEnv.processingOver()
+            && beanElements.size() > previousBeanCount) {
+            if (!contextGenerated) {
+                // Constructors generated by processors that run before this one (e.g. Lombok) are already visible
+                contextGenerated = true;
+                // Independent beans are registered in a stable order, regardless of the order they were found in
+                final var sortedBeanElements = new ArrayList<>(beanElements);
+                sortedBeanElements.sort(Comparator.comparing(this::getSortKey));
+                generatedContextName = new GeneratedContextWriter(processingEnv, beanAnnotation)
+                    .write(sortedBeanElements, processingEnv.getOptions().get(AOT_PACKAGE_OPTION));
+            } else if (generatedContextName != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Not registering " + generatedContextName
+                    + ": beans were generated after it", beanElements.get(previousBeanCount));
+                generatedContextName = null;
+            }
+        }
+
+        if (roundEnv.processingOver()) {
+            if (!entries.isEmpty()) {
+                writeIndex();
+            }
+            if (generatedContextName != null) {
+                new GeneratedContextWriter(processingEnv, beanAnnotation).writeService(generatedContextName);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Collects the type and its nested types annotated with an annotation that is annotated with the Bean annotation.
+     * Types annotated with the Bean annotation directly are collected by {@link RoundEnvironment#getElementsAnnotatedWith}.
+     *
+     * @param element        Type element to collect
+     * @param beanAnnotation Bean annotation type element
+     */
+    private void collectMetaAnnotatedTypes(Element element, TypeElement beanAnnotation) {
+        if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+            return;
+        }
+
+        final var typeElement = (TypeElement) element;
+        if (typeElement.getKind() != ElementKind.ANNOTATION_TYPE && !isAnnotatedWith(typeElement, beanAnnotation)) {
+            for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors()) {
+                if (isMetaAnnotatedWith(annotationMirror.getAnnotationType().asElement(), beanAnnotation, new HashSet<>())) {
+                    beanElements.add(typeElement);
+                    entries.add(String.join("\t", "class", getBinaryName(typeElement), ""));
+                    break;
+                }
+            }
+        }
+
+        for (Element enclosedElement : typeElement.getEnclosedElements()) {
+            collectMetaAnnotatedTypes(enclosedElement, beanAnnotation);
+        }
+    }
+
+    /**
+     * Checks whether the annotation type is annotated with the Bean annotation, directly or transitively.
+     *
+     * @param annotationType Annotation type element
+     * @param beanAnnotation Bean annotation type element
+     * @param visited        Annotation types visited so far, to stop at cycles such as {@code @Retention}
+     *
+     * @return True if the annotation type is a Bean meta-annotation
+     */
+    private boolean isMetaAnnotatedWith(Element annotationType, TypeElement beanAnnotation, Set<Element> visited) {
+        if (!visited.add(annotationType)) {
+            return false;
+        }
+
+        for (AnnotationMirror annotationMirror : annotationType.getAnnotationMirrors()) {
+            final var metaAnnotationType = annotationMirror.getAnnotationType().asElement();
+            if (metaAnnotationType.equals(beanAnnotation) || isMetaAnnotatedWith(metaAnnotationType, beanAnnotation, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAnnotatedWith(Element element, TypeElement annotation) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (annotationMirror.getAnnotationType().asElement().equals(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the collected entries into the index file.
+     */
+    private void writeIndex() {
+        try {
+            final var resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            try (Writer writer = resource.openWriter()) {
+                writer.write("# Generated by sigewine-processor, do not edit\n");
+                for (String entry : entries) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + INDEX_LOCATION + ": " + exception);
+        }
+    }
+
+    /**
+     * Gets the key the bean elements are sorted by: the binary name of the class, followed by the method signature for
+     * methods.
+     *
+     * @param element Class or method annotated with the Bean annotation
+     *
+     * @return Sort key of the element
+     */
+    private String getSortKey(Element element) {
+        if (element instanceof ExecutableElement method) {
+            return getBinaryName((TypeElement) method.getEnclosingElement()) + "#" + method;
+        }
+        return getBinaryName((TypeElement) element);
+    }
+
+    /**
+     * Gets the binary name of the type element, e.g. {@code some.package.Outer$Inner}.
+     *
+     * @param typeElement Type element
+     *
+     * @return Binary name of the type element
+     */
+    private String getBinaryName(TypeElement typeElement) {
+        return processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+    }
+
+    /**
+     * Gets the value of the Bean annotation's name attribute on the element.
+     *
+     * @param element        Element annotated with the Bean annotation
+     * @param beanAnnotation Bean annotation type element
+     *
+     * @return Bean name or an empty string if not specified
+     */
+    private String getBeanName(Element element, TypeElement beanAnnotation) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (!annotationMirror.getAnnotationType().asElement().equals(beanAnnotation)) {
+                continue;
+            }
+            for (var entry : annotationMirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("name")) {
+                    return String.valueOf(((AnnotationValue) entry.getValue()).getValue());
+                }
+            }
+        }
+        return "";
+    }
+}
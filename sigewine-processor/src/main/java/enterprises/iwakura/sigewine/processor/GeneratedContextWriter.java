@@ -0,0 +1,548 @@
+package enterprises.iwakura.sigewine.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the ahead-of-time generated context, a Java class implementing
+ * {@code enterprises.iwakura.sigewine.core.aot.GeneratedContext}, which registers all beans of the compilation by
+ * calling their constructors and factory methods directly, in a dependency order computed at compile time.
+ * <p>
+ * If any bean cannot be created without reflection (e.g. it is not public or has more than one public constructor),
+ * no context is generated and Sigewine falls back to scanning at runtime.
+ * </p>
+ */
+final class GeneratedContextWriter {
+
+    /**
+     * Simple name of the generated context class.
+     */
+    static final String CLASS_NAME = "SigewineGeneratedContext";
+
+    /**
+     * Fully qualified name of the generated context interface.
+     */
+    static final String GENERATED_CONTEXT_INTERFACE = "enterprises.iwakura.sigewine.core.aot.GeneratedContext";
+
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement beanAnnotation;
+
+    GeneratedContextWriter(ProcessingEnvironment processingEnv, TypeElement beanAnnotation) {
+        this.processingEnv = processingEnv;
+        this.beanAnnotation = beanAnnotation;
+    }
+
+    /**
+     * Generates the source of the context for the bean elements. The context is not used until it is registered as a
+     * service with {@link #writeService(String)}.
+     *
+     * @param beanElements Classes and methods annotated with the Bean annotation
+     * @param packageName  Package of the generated class, or null to use the common package of all beans
+     *
+     * @return Fully qualified name of the generated class, or null if no context was generated
+     */
+    String write(List<Element> beanElements, String packageName) {
+        final var beans = new ArrayList<BeanModel>();
+
+        for (Element element : beanElements) {
+            try {
+                beans.add(element.getKind() == ElementKind.METHOD
+                    ? createMethodBean((ExecutableElement) element)
+                    : createClassBean((TypeElement) element));
+            } catch (UnsupportedBeanException exception) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Not generating " + CLASS_NAME + ": " + exception.getMessage(), element);
+                return null;
+            }
+        }
+
+        if (beans.isEmpty()) {
+            return null;
+        }
+
+        if (packageName == null || packageName.isBlank()) {
+            packageName = getCommonPackage(beans);
+        }
+
+        final var qualifiedName = packageName.isEmpty() ? CLASS_NAME : packageName + "." + CLASS_NAME;
+
+        try {
+            final var sourceFile = processingEnv.getFiler().createSourceFile(qualifiedName,
+                beans.stream().map(BeanModel::element).toArray(Element[]::new));
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(generateSource(packageName, beans));
+            }
+            return qualifiedName;
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + qualifiedName + ": " + exception);
+            return null;
+        }
+    }
+
+    /**
+     * Registers the generated context as a service, so that Sigewine finds it at runtime.
+     *
+     * @param qualifiedName Fully qualified name of the generated class
+     */
+    void writeService(String qualifiedName) {
+        final var serviceLocation = "META-INF/services/" + GENERATED_CONTEXT_INTERFACE;
+        try {
+            final var serviceFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", serviceLocation);
+            try (Writer writer = serviceFile.openWriter()) {
+                writer.write(qualifiedName);
+                writer.write('\n');
+            }
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + serviceLocation + ": " + exception);
+        }
+    }
+
+    /**
+     * Generates the source code of the context. Beans are ordered so that every bean is registered after all beans it
+     * depends on. Beans that cannot be ordered due to circular dependencies make the registration of their packages fail
+     * the same way scanning would.
+     *
+     * @param packageName Package of the generated class
+     * @param beans       Bean models
+     *
+     * @return Source code
+     */
+    private String generateSource(String packageName, List<BeanModel> beans) {
+        final var sortedBeans = sortByDependencies(beans);
+        final var unsortedBeans = new ArrayList<>(beans);
+        unsortedBeans.removeAll(sortedBeans);
+
+        final var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n");
+        source.append(" * Generated by sigewine-processor, do not edit.\n");
+        source.append(" */\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(CLASS_NAME).append(" implements ").append(GENERATED_CONTEXT_INTERFACE).append(" {\n\n");
+
+        final var classNames = beans.stream()
+            .map(bean -> quote(bean.binaryName()))
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        source.append("    private static final java.util.List<String> BEAN_CLASS_NAMES = java.util.List.of(\n            ");
+        source.append(String.join(",\n            ", classNames));
+        source.append("\n    );\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public java.util.List<String> getBeanClassNames() {\n");
+        source.append("        return BEAN_CLASS_NAMES;\n");
+        source.append("    }\n\n");
+
+        source.append("    @Override\n");
+        source.append("    public void register(enterprises.iwakura.sigewine.core.Sigewine sigewine, String packageName) {\n");
+
+        if (!unsortedBeans.isEmpty()) {
+            final var condition = unsortedBeans.stream()
+                .map(bean -> inPackage(bean.binaryName()))
+                .distinct()
+                .collect(Collectors.joining("\n                || "));
+            final var names = unsortedBeans.stream().map(BeanModel::describe).collect(Collectors.joining(", "));
+            source.append("        if (").append(condition).append(") {\n");
+            source.append("            throw new IllegalStateException(").append(quote("Circular dependency detected between beans: " + names)).append(");\n");
+            source.append("        }\n");
+        }
+
+        for (BeanModel bean : sortedBeans) {
+            source.append("        if (").append(inPackage(bean.binaryName())).append(") {\n");
+            if (bean.method() == null) {
+                source.append("            sigewine.registerClassBean(").append(beanDefinition(bean.type(), bean.name())).append(",\n");
+                source.append("                ").append(factory(bean.declaringClass(), bean.constructor())).append(");\n");
+            } else {
+                final var declaringClassName = bean.declaringClass().getQualifiedName().toString();
+                final var invocation = bean.method().getModifiers().contains(Modifier.STATIC)
+                    ? declaringClassName + "." + bean.method().getSimpleName() + "()"
+                    : "((" + declaringClassName + ") instance)." + bean.method().getSimpleName() + "()";
+                source.append("            sigewine.registerMethodBean(").append(beanDefinition(bean.type(), bean.name())).append(",\n");
+                source.append("                ").append(quote(getScope(bean.method()))).append(", ").append(isLazy(bean.method())).append(",\n");
+                source.append("                ").append(declaringClassName).append(".class,\n");
+                source.append("                ").append(factory(bean.declaringClass(), bean.constructor())).append(",\n");
+                source.append("                instance -> ").append(invocation).append(");\n");
+            }
+            source.append("        }\n");
+        }
+
+        source.append("    }\n");
+        source.append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Sorts beans so that every bean comes after all beans it may depend on. Among beans that are ready at the same
+     * time, the original order is kept. Beans on or depending on a circular dependency are left out.
+     *
+     * @param beans Bean models
+     *
+     * @return Sorted bean models
+     */
+    private List<BeanModel> sortByDependencies(List<BeanModel> beans) {
+        final var count = beans.size();
+        final List<List<Integer>> dependents = new ArrayList<>(count);
+        final var remainingDependencies = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            dependents.add(new ArrayList<>());
+        }
+
+        for (int i = 0; i < count; i++) {
+            final var bean = beans.get(i);
+            for (int j = 0; j < count; j++) {
+                if (i != j && dependsOn(bean, beans.get(j))) {
+                    dependents.get(j).add(i);
+                    remainingDependencies[i]++;
+                }
+            }
+        }
+
+        final var ready = new PriorityQueue<Integer>();
+        for (int i = 0; i < count; i++) {
+            if (remainingDependencies[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        final var sorted = new ArrayList<BeanModel>(count);
+        while (!ready.isEmpty()) {
+            final int index = ready.poll();
+            sorted.add(beans.get(index));
+            for (int dependent : dependents.get(index)) {
+                if (--remainingDependencies[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Checks if the bean may require the other bean to be registered first.
+     *
+     * @param bean  Bean to check
+     * @param other Other bean
+     *
+     * @return True if the bean may depend on the other bean
+     */
+    private boolean dependsOn(BeanModel bean, BeanModel other) {
+        final var types = processingEnv.getTypeUtils();
+
+        if (bean.method() != null && other.method() == null && other.declaringClass().equals(bean.declaringClass())) {
+            return true;
+        }
+
+        for (VariableElement parameter : bean.constructor().getParameters()) {
+            final var parameterType = types.erasure(parameter.asType());
+            final var parameterBeanName = getBeanName(parameter);
+            final var namesMatch = parameterBeanName.isEmpty() || parameterBeanName.equals(other.name());
+
+            if (namesMatch && types.isAssignable(other.type(), parameterType)) {
+                return true;
+            }
+
+            final var elementType = getCollectionElementType(parameter.asType());
+            if (elementType != null && types.isAssignable(other.type(), types.erasure(elementType))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private BeanModel createClassBean(TypeElement typeElement) throws UnsupportedBeanException {
+        if (typeElement.getKind() != ElementKind.CLASS && typeElement.getKind() != ElementKind.RECORD
+            || typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedBeanException(typeElement + " is not a concrete class");
+        }
+
+        return new BeanModel(typeElement, typeElement, null, getSingleConstructor(typeElement),
+            processingEnv.getTypeUtils().erasure(typeElement.asType()), getBeanName(typeElement));
+    }
+
+    private BeanModel createMethodBean(ExecutableElement method) throws UnsupportedBeanException {
+        final var declaringClass = (TypeElement) method.getEnclosingElement();
+        final var returnType = method.getReturnType();
+
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            throw new UnsupportedBeanException("Method " + declaringClass + "#" + method + " is not public");
+        }
+        if (!method.getParameters().isEmpty()) {
+            throw new UnsupportedBeanException("Method " + declaringClass + "#" + method + " has parameters");
+        }
+        if (returnType.getKind().isPrimitive() || returnType.getKind() == TypeKind.VOID) {
+            throw new UnsupportedBeanException("Method " + declaringClass + "#" + method + " does not return an object");
+        }
+        checkAccessible(returnType);
+
+        return new BeanModel(method, declaringClass, method, getSingleConstructor(declaringClass),
+            processingEnv.getTypeUtils().erasure(returnType), getBeanName(method));
+    }
+
+    /**
+     * Gets the only public constructor of the class, checking that the class and the parameter types of the constructor
+     * are accessible from the generated context.
+     */
+    private ExecutableElement getSingleConstructor(TypeElement typeElement) throws UnsupportedBeanException {
+        checkAccessible(typeElement);
+
+        final var constructors = typeElement.getEnclosedElements().stream()
+            .filter(element -> element.getKind() == ElementKind.CONSTRUCTOR)
+            .filter(element -> element.getModifiers().contains(Modifier.PUBLIC))
+            .map(ExecutableElement.class::cast)
+            .toList();
+
+        if (constructors.size() != 1) {
+            throw new UnsupportedBeanException(typeElement + " must have exactly one public constructor");
+        }
+
+        for (VariableElement parameter : constructors.get(0).getParameters()) {
+            if (parameter.asType().getKind().isPrimitive()) {
+                throw new UnsupportedBeanException("Constructor of " + typeElement + " has primitive parameter " + parameter);
+            }
+            checkAccessible(parameter.asType());
+            final var elementType = getElementType(parameter.asType());
+            if (elementType != null) {
+                checkAccessible(elementType);
+            }
+        }
+
+        return constructors.get(0);
+    }
+
+    private void checkAccessible(TypeMirror type) throws UnsupportedBeanException {
+        final var erasure = processingEnv.getTypeUtils().erasure(type);
+        if (erasure instanceof ArrayType arrayType) {
+            checkAccessible(arrayType.getComponentType());
+        } else if (erasure instanceof DeclaredType declaredType) {
+            checkAccessible((TypeElement) declaredType.asElement());
+        } else if (!erasure.getKind().isPrimitive()) {
+            throw new UnsupportedBeanException("Type " + type + " cannot be referenced");
+        }
+    }
+
+    private void checkAccessible(TypeElement typeElement) throws UnsupportedBeanException {
+        if (!typeElement.getModifiers().contains(Modifier.PUBLIC)) {
+            throw new UnsupportedBeanException(typeElement + " is not public");
+        }
+        if (typeElement.getNestingKind() == NestingKind.MEMBER) {
+            if (!typeElement.getModifiers().contains(Modifier.STATIC) && typeElement.getKind() == ElementKind.CLASS) {
+                throw new UnsupportedBeanException(typeElement + " is an inner class");
+            }
+            checkAccessible((TypeElement) typeElement.getEnclosingElement());
+        } else if (typeElement.getNestingKind() != NestingKind.TOP_LEVEL) {
+            throw new UnsupportedBeanException(typeElement + " is a local or anonymous class");
+        }
+    }
+
+    /**
+     * Gets the element type of List or Set parameter, as used by collection injection.
+     *
+     * @param type Type of the parameter
+     *
+     * @return Element type or null if the type is not a parameterized collection
+     */
+    private TypeMirror getCollectionElementType(TypeMirror type) {
+        final var types = processingEnv.getTypeUtils();
+        final var collection = processingEnv.getElementUtils().getTypeElement("java.util.Collection");
+
+        if (!(type instanceof DeclaredType declaredType) || declaredType.getTypeArguments().size() != 1
+            || !types.isAssignable(types.erasure(type), types.erasure(collection.asType()))) {
+            return null;
+        }
+
+        final var typeArgument = declaredType.getTypeArguments().get(0);
+        return typeArgument.getKind() == TypeKind.DECLARED ? typeArgument : null;
+    }
+
+    /**
+     * Gets the element type of Supplier parameter, as used by lazy injection.
+     *
+     * @param type Type of the parameter
+     *
+     * @return Element type or null if the type is not a parameterized supplier
+     */
+    private TypeMirror getSupplierElementType(TypeMirror type) {
+        final var types = processingEnv.getTypeUtils();
+        final var supplier = processingEnv.getElementUtils().getTypeElement("java.util.function.Supplier");
+
+        if (!(type instanceof DeclaredType declaredType) || declaredType.getTypeArguments().size() != 1
+            || !types.isSameType(types.erasure(type), types.erasure(supplier.asType()))) {
+            return null;
+        }
+
+        final var typeArgument = declaredType.getTypeArguments().get(0);
+        return typeArgument.getKind() == TypeKind.DECLARED ? typeArgument : null;
+    }
+
+    /**
+     * Gets the element type of collection or supplier parameter, passed to the dependency resolution.
+     *
+     * @param type Type of the parameter
+     *
+     * @return Element type or null if the type is neither a parameterized collection nor a supplier
+     */
+    private TypeMirror getElementType(TypeMirror type) {
+        final var elementType = getCollectionElementType(type);
+        return elementType != null ? elementType : getSupplierElementType(type);
+    }
+
+    /**
+     * Gets the factory expression creating instance of the class via its constructor.
+     */
+    private String factory(TypeElement typeElement, ExecutableElement constructor) {
+        final var className = typeElement.getQualifiedName().toString();
+        final var arguments = new ArrayList<String>();
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            final var parameterType = processingEnv.getTypeUtils().erasure(parameter.asType()).toString();
+            final var elementType = getElementType(parameter.asType());
+            arguments.add("(" + parameterType + ") sigewine.resolveDependency("
+                + beanDefinition(parameter.asType(), getBeanName(parameter)) + ", "
+                + (elementType == null ? "null" : processingEnv.getTypeUtils().erasure(elementType) + ".class") + ", "
+                + quote(parameter.getSimpleName().toString()) + ", "
+                + className + ".class)");
+        }
+
+        if (arguments.isEmpty()) {
+            return "() -> new " + className + "()";
+        }
+        return "() -> new " + className + "(\n                    " + String.join(",\n                    ", arguments) + ")";
+    }
+
+    private String beanDefinition(TypeMirror type, String name) {
+        return "enterprises.iwakura.sigewine.core.BeanDefinition.of(" + processingEnv.getTypeUtils().erasure(type) + ".class, " + quote(name) + ")";
+    }
+
+    private String inPackage(String binaryName) {
+        return GENERATED_CONTEXT_INTERFACE + ".isInPackage(" + quote(binaryName) + ", packageName)";
+    }
+
+    private String getBeanName(Element element) {
+        for (var annotationMirror : element.getAnnotationMirrors()) {
+            if (!annotationMirror.getAnnotationType().asElement().equals(beanAnnotation)) {
+                continue;
+            }
+            for (var entry : annotationMirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("name")) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return "";
+    }
+
+    private String getScope(Element element) {
+        for (var annotationMirror : element.getAnnotationMirrors()) {
+            if (!annotationMirror.getAnnotationType().asElement().equals(beanAnnotation)) {
+                continue;
+            }
+            for (var entry : annotationMirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("scope")) {
+                    return String.valueOf(entry.getValue().getValue());
+                }
+            }
+        }
+        return "singleton";
+    }
+
+    private boolean isLazy(Element element) {
+        for (var annotationMirror : element.getAnnotationMirrors()) {
+            if (!annotationMirror.getAnnotationType().asElement().equals(beanAnnotation)) {
+                continue;
+            }
+            for (var entry : annotationMirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("lazy")) {
+                    return Boolean.TRUE.equals(entry.getValue().getValue());
+                }
+            }
+        }
+        return false;
+    }
+
+    private String getCommonPackage(List<BeanModel> beans) {
+        String commonPackage = null;
+        for (BeanModel bean : beans) {
+            final var beanPackage = processingEnv.getElementUtils().getPackageOf(bean.declaringClass()).getQualifiedName().toString();
+            if (commonPackage == null) {
+                commonPackage = beanPackage;
+            } else {
+                while (!(beanPackage.equals(commonPackage) || beanPackage.startsWith(commonPackage + "."))) {
+                    final var lastDot = commonPackage.lastIndexOf('.');
+                    commonPackage = lastDot == -1 ? "" : commonPackage.substring(0, lastDot);
+                    if (commonPackage.isEmpty()) {
+                        return "";
+                    }
+                }
+            }
+        }
+        return commonPackage == null ? "" : commonPackage;
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+
+    /**
+     * Bean that will be registered by the generated context.
+     *
+     * @param element        Annotated element
+     * @param declaringClass Class of a class bean or class declaring a method bean
+     * @param method         Factory method of a method bean, null for class beans
+     * @param constructor    Constructor of the declaring class
+     * @param type           Erased type of the bean
+     * @param name           Name of the bean
+     */
+    private record BeanModel(Element element, TypeElement declaringClass, ExecutableElement method,
+                             ExecutableElement constructor, TypeMirror type, String name) {
+
+        String binaryName() {
+            return declaringClassBinaryName(declaringClass);
+        }
+
+        String describe() {
+            return method == null ? declaringClass.getQualifiedName().toString() : declaringClass.getQualifiedName() + "#" + method.getSimpleName() + "()";
+        }
+
+        private static String declaringClassBinaryName(TypeElement typeElement) {
+            if (typeElement.getNestingKind() == NestingKind.MEMBER) {
+                return declaringClassBinaryName((TypeElement) typeElement.getEnclosingElement()) + "$" + typeElement.getSimpleName();
+            }
+            return typeElement.getQualifiedName().toString();
+        }
+    }
+
+    /**
+     * Thrown when a bean cannot be registered without reflection.
+     */
+    private static final class UnsupportedBeanException extends Exception {
+
+        UnsupportedBeanException(String message) {
+            super(message);
+        }
+    }
+}
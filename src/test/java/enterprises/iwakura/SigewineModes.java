@@ -0,0 +1,29 @@
+package enterprises.iwakura;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+/**
+ * Provides options for each way Sigewine finds beans: the generated context, the bean index and classpath scanning.
+ * Parameterized tests using it take a {@link SigewineOptions.SigewineOptionsBuilder}, so they can set further options.
+ */
+public class SigewineModes implements ArgumentsProvider {
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        return Stream.of(
+            Arguments.of(Named.of("generatedContext", SigewineOptions.builder())),
+            Arguments.of(Named.of("beanIndex", SigewineOptions.builder()
+                .useGeneratedContext(false))),
+            Arguments.of(Named.of("classpathScanning", SigewineOptions.builder()
+                .useGeneratedContext(false)
+                .useBeanIndex(false)))
+        );
+    }
+}
@@ -0,0 +1,35 @@
+package enterprises.iwakura.sigewine_aop_around;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import enterprises.iwakura.sigewine.aop.AroundMethodWrapper;
+import enterprises.iwakura.sigewine.aop.MethodInvocation;
+
+public class CachingMethodWrapper extends AroundMethodWrapper<Cached> {
+
+    private final Map<List<Object>, Object> cache = new ConcurrentHashMap<>();
+    private final List<String> events;
+
+    public CachingMethodWrapper(List<String> events) {
+        super(Cached.class, -1);
+        this.events = events;
+    }
+
+    @Override
+    protected Object around(MethodInvocation invocation, Cached annotation) throws Throwable {
+        final var key = Arrays.asList(invocation.getArgs());
+        final var cached = cache.get(key);
+        if (cached != null) {
+            events.add("cache-hit");
+            return cached;
+        }
+
+        events.add("cache-miss");
+        final var result = invocation.proceed();
+        cache.put(key, result);
+        return result;
+    }
+}
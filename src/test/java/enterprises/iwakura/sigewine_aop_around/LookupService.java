@@ -0,0 +1,26 @@
+package enterprises.iwakura.sigewine_aop_around;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean
+public class LookupService {
+
+    @Getter
+    private final AtomicInteger invocations = new AtomicInteger();
+
+    @Cached
+    @Recorded
+    @Trimmed
+    public String lookup(String key) {
+        invocations.incrementAndGet();
+        return key.toUpperCase();
+    }
+
+    @Trimmed
+    public int length(String value) {
+        return value.length();
+    }
+}
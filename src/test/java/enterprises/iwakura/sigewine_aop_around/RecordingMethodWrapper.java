@@ -0,0 +1,27 @@
+package enterprises.iwakura.sigewine_aop_around;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+import enterprises.iwakura.sigewine.aop.MethodWrapper;
+
+public class RecordingMethodWrapper extends MethodWrapper<Recorded> {
+
+    private final List<String> events;
+
+    public RecordingMethodWrapper(List<String> events) {
+        super(Recorded.class);
+        this.events = events;
+    }
+
+    @Override
+    protected void beforeInvocation(Object target, Method method, Object[] args, Recorded annotation, Object proxy) {
+        events.add("before " + args[0]);
+    }
+
+    @Override
+    protected void afterInvocation(Object target, Method method, Object[] args, Recorded annotation, Optional<Object> optionalResult, Optional<Throwable> optionalThrowable, Object proxy) {
+        events.add("after " + optionalResult.orElse(null));
+    }
+}
@@ -0,0 +1,51 @@
+package enterprises.iwakura.sigewine_aop_around;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.aop.ProxyMode;
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineAopAroundTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        for (ProxyMode proxyMode : ProxyMode.values()) {
+            run(sigewineOptions.build(), proxyMode);
+        }
+    }
+
+    private void run(SigewineOptions sigewineOptions, ProxyMode proxyMode) {
+        Sigewine sigewine = new Sigewine(sigewineOptions);
+        List<String> events = new CopyOnWriteArrayList<>();
+        AopExtension aopExtension = new AopExtension(1, proxyMode);
+        // Applied by their priorities, not in the order they are added
+        aopExtension.addMethodWrapper(new TrimmingMethodWrapper(events));
+        aopExtension.addMethodWrapper(new RecordingMethodWrapper(events));
+        aopExtension.addMethodWrapper(new CachingMethodWrapper(events));
+        sigewine.addExtension(aopExtension);
+
+        sigewine.scan(SigewineAopAroundTest.class);
+        final var lookupService = sigewine.inject(LookupService.class);
+
+        Assertions.assertEquals("AMBER", lookupService.lookup(" amber "));
+        Assertions.assertEquals(List.of("cache-miss", "before  amber ", "trim", "after AMBER"), events);
+
+        // Short-circuited by the outermost wrapper
+        events.clear();
+        Assertions.assertEquals("AMBER", lookupService.lookup(" amber "));
+        Assertions.assertEquals(List.of("cache-hit"), events);
+        Assertions.assertEquals(1, lookupService.getInvocations().get());
+
+        // Primitive results and replaced arguments
+        Assertions.assertEquals(4, lookupService.length("  lisa  "));
+    }
+}
@@ -0,0 +1,22 @@
+package enterprises.iwakura.sigewine_aop_around;
+
+import java.util.List;
+
+import enterprises.iwakura.sigewine.aop.AroundMethodWrapper;
+import enterprises.iwakura.sigewine.aop.MethodInvocation;
+
+public class TrimmingMethodWrapper extends AroundMethodWrapper<Trimmed> {
+
+    private final List<String> events;
+
+    public TrimmingMethodWrapper(List<String> events) {
+        super(Trimmed.class, 1);
+        this.events = events;
+    }
+
+    @Override
+    protected Object around(MethodInvocation invocation, Trimmed annotation) throws Throwable {
+        events.add("trim");
+        return invocation.proceed(((String) invocation.getArgs()[0]).trim());
+    }
+}
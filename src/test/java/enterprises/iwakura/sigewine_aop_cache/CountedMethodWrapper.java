@@ -0,0 +1,29 @@
+package enterprises.iwakura.sigewine_aop_cache;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import enterprises.iwakura.sigewine.aop.MethodWrapper;
+import lombok.Getter;
+
+@Getter
+public class CountedMethodWrapper extends MethodWrapper<Counted> {
+
+    private final List<Object> targets = new CopyOnWriteArrayList<>();
+
+    public CountedMethodWrapper() {
+        super(Counted.class);
+    }
+
+    @Override
+    protected void beforeInvocation(Object target, Method method, Object[] args, Counted annotation, Object proxy) {
+        targets.add(target);
+    }
+
+    @Override
+    protected void afterInvocation(Object target, Method method, Object[] args, Counted annotation, Optional<Object> optionalResult, Optional<Throwable> optionalThrowable, Object proxy) {
+
+    }
+}
@@ -0,0 +1,13 @@
+package enterprises.iwakura.sigewine_aop_cache;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+
+@Bean(scope = BeanScope.PROTOTYPE)
+public class GreetingRequest {
+
+    @Counted
+    public String greet(String name) {
+        return "Hi, " + name;
+    }
+}
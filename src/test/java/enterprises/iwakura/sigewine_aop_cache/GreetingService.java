@@ -0,0 +1,12 @@
+package enterprises.iwakura.sigewine_aop_cache;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class GreetingService {
+
+    @Counted
+    public String greet(String name) {
+        return "Hello, " + name;
+    }
+}
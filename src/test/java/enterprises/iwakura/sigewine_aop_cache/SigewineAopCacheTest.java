@@ -0,0 +1,56 @@
+package enterprises.iwakura.sigewine_aop_cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.aop.SigewineProxy;
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineAopCacheTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        CountedMethodWrapper firstWrapper = new CountedMethodWrapper();
+        CountedMethodWrapper secondWrapper = new CountedMethodWrapper();
+        Sigewine first = createSigewine(sigewineOptions.build(), firstWrapper);
+        Sigewine second = createSigewine(sigewineOptions.build(), secondWrapper);
+
+        final var firstService = first.inject(GreetingService.class);
+        final var secondService = second.inject(GreetingService.class);
+        final var firstRequest = first.inject(GreetingRequest.class);
+        final var secondRequest = first.inject(GreetingRequest.class);
+
+        Assertions.assertInstanceOf(SigewineProxy.class, firstService);
+        Assertions.assertNotSame(firstService, secondService);
+        Assertions.assertSame(firstService.getClass(), secondService.getClass());
+        Assertions.assertNotSame(firstRequest, secondRequest);
+        Assertions.assertSame(firstRequest.getClass(), secondRequest.getClass());
+
+        Assertions.assertEquals("Hello, Aether", firstService.greet("Aether"));
+        Assertions.assertEquals("Hello, Lumine", secondService.greet("Lumine"));
+        Assertions.assertEquals("Hi, Paimon", firstRequest.greet("Paimon"));
+        Assertions.assertEquals("Hi, Paimon", secondRequest.greet("Paimon"));
+
+        Assertions.assertEquals(3, firstWrapper.getTargets().size());
+        Assertions.assertEquals(1, secondWrapper.getTargets().size());
+        Assertions.assertSame(first.getProxiedOriginalBeans().get(first.getSingletonBeans().keySet().stream()
+            .filter(definition -> definition.getClazz() == GreetingService.class)
+            .findFirst()
+            .orElseThrow()), firstWrapper.getTargets().get(0));
+        Assertions.assertNotSame(firstWrapper.getTargets().get(1), firstWrapper.getTargets().get(2));
+    }
+
+    private Sigewine createSigewine(SigewineOptions sigewineOptions, CountedMethodWrapper countedMethodWrapper) {
+        Sigewine sigewine = new Sigewine(sigewineOptions);
+        AopExtension aopExtension = new AopExtension(1);
+        aopExtension.addMethodWrapper(countedMethodWrapper);
+        sigewine.addExtension(aopExtension);
+        sigewine.scan(SigewineAopCacheTest.class);
+        return sigewine;
+    }
+}
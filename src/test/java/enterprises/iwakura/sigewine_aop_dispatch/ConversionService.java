@@ -0,0 +1,21 @@
+package enterprises.iwakura.sigewine_aop_dispatch;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class ConversionService {
+
+    @Measured("int")
+    public int convert(String value) {
+        return Integer.parseInt(value);
+    }
+
+    public long convert(String value, int radix) {
+        return Long.parseLong(value, radix);
+    }
+
+    @Measured("double")
+    public double convert(double value) {
+        return value * 2;
+    }
+}
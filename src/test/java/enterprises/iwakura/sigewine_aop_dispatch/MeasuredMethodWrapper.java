@@ -0,0 +1,30 @@
+package enterprises.iwakura.sigewine_aop_dispatch;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import enterprises.iwakura.sigewine.aop.MethodWrapper;
+import lombok.Getter;
+
+@Getter
+public class MeasuredMethodWrapper extends MethodWrapper<Measured> {
+
+    private final List<String> measurements = new CopyOnWriteArrayList<>();
+    private final List<Throwable> throwables = new CopyOnWriteArrayList<>();
+
+    public MeasuredMethodWrapper() {
+        super(Measured.class);
+    }
+
+    @Override
+    protected void beforeInvocation(Object target, Method method, Object[] args, Measured annotation, Object proxy) {
+        measurements.add(annotation.value());
+    }
+
+    @Override
+    protected void afterInvocation(Object target, Method method, Object[] args, Measured annotation, Optional<Object> optionalResult, Optional<Throwable> optionalThrowable, Object proxy) {
+        optionalThrowable.ifPresent(throwables::add);
+    }
+}
@@ -0,0 +1,37 @@
+package enterprises.iwakura.sigewine_aop_dispatch;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineAopDispatchTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        MeasuredMethodWrapper measuredMethodWrapper = new MeasuredMethodWrapper();
+        AopExtension aopExtension = new AopExtension(1);
+        aopExtension.addMethodWrapper(measuredMethodWrapper);
+        sigewine.addExtension(aopExtension);
+
+        sigewine.scan(SigewineAopDispatchTest.class);
+        final var conversionService = sigewine.inject(ConversionService.class);
+
+        Assertions.assertEquals(42, conversionService.convert("42"));
+        Assertions.assertEquals(255, conversionService.convert("ff", 16));
+        Assertions.assertEquals(3.0, conversionService.convert(1.5));
+        Assertions.assertThrows(NumberFormatException.class, () -> conversionService.convert("nope"));
+
+        Assertions.assertEquals(List.of("int", "double", "int"), measuredMethodWrapper.getMeasurements());
+        Assertions.assertEquals(1, measuredMethodWrapper.getThrowables().size());
+        Assertions.assertInstanceOf(NumberFormatException.class, measuredMethodWrapper.getThrowables().get(0));
+    }
+}
@@ -0,0 +1,9 @@
+package enterprises.iwakura.sigewine_aop_selective;
+
+@Logged
+public abstract class DescribedService {
+
+    public String describe() {
+        return "described";
+    }
+}
@@ -0,0 +1,7 @@
+package enterprises.iwakura.sigewine_aop_selective;
+
+public interface Greeter {
+
+    @Logged
+    String greet(String name);
+}
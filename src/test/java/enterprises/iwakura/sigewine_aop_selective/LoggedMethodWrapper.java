@@ -0,0 +1,28 @@
+package enterprises.iwakura.sigewine_aop_selective;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import enterprises.iwakura.sigewine.aop.MethodWrapper;
+import lombok.Getter;
+
+@Getter
+public class LoggedMethodWrapper extends MethodWrapper<Logged> {
+
+    private final List<String> invokedMethods = new CopyOnWriteArrayList<>();
+
+    public LoggedMethodWrapper() {
+        super(Logged.class);
+    }
+
+    @Override
+    protected void beforeInvocation(Object target, Method method, Object[] args, Logged annotation, Object proxy) {
+        invokedMethods.add(method.getName());
+    }
+
+    @Override
+    protected void afterInvocation(Object target, Method method, Object[] args, Logged annotation, Optional<Object> optionalResult, Optional<Throwable> optionalThrowable, Object proxy) {
+    }
+}
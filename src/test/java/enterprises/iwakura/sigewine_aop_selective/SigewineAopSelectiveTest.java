@@ -0,0 +1,61 @@
+package enterprises.iwakura.sigewine_aop_selective;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.aop.ProxyMode;
+import enterprises.iwakura.sigewine.aop.SigewineProxy;
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineAopSelectiveTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        for (ProxyMode proxyMode : ProxyMode.values()) {
+            run(sigewineOptions.build(), proxyMode);
+        }
+    }
+
+    private void run(SigewineOptions sigewineOptions, ProxyMode proxyMode) {
+        Sigewine sigewine = new Sigewine(sigewineOptions);
+        LoggedMethodWrapper loggedMethodWrapper = new LoggedMethodWrapper();
+        AopExtension aopExtension = new AopExtension(1, proxyMode);
+        aopExtension.addMethodWrapper(loggedMethodWrapper);
+        sigewine.addExtension(aopExtension);
+
+        sigewine.scan(SigewineAopSelectiveTest.class);
+        final var welcomeService = sigewine.inject(WelcomeService.class);
+        Assertions.assertInstanceOf(SigewineProxy.class, welcomeService);
+
+        // Annotations inherited from the interface and the class-level annotation of the superclass
+        Assertions.assertEquals("Welcome, Traveler", welcomeService.greet("Traveler"));
+        Assertions.assertEquals("welcome described", welcomeService.describe());
+
+        // Unwrapped methods
+        Assertions.assertEquals("Welcome, ", welcomeService.prefix());
+        Assertions.assertEquals("Farewell, Traveler", welcomeService.farewell("Traveler"));
+        Assertions.assertEquals("WelcomeService", welcomeService.toString());
+        Assertions.assertEquals(List.of("greet", "describe"), loggedMethodWrapper.getInvokedMethods());
+
+        final var proxyClass = welcomeService.getClass();
+        Assertions.assertDoesNotThrow(() -> proxyClass.getDeclaredMethod("greet", String.class));
+        Assertions.assertDoesNotThrow(() -> proxyClass.getDeclaredMethod("describe"));
+        if (proxyMode == ProxyMode.SUBCLASS) {
+            // Not overridden, invoked as plain virtual calls
+            Assertions.assertThrows(NoSuchMethodException.class, () -> proxyClass.getDeclaredMethod("prefix"));
+            Assertions.assertThrows(NoSuchMethodException.class, () -> proxyClass.getDeclaredMethod("toString"));
+            Assertions.assertEquals(2, welcomeService.getPrefixInvocations());
+        } else {
+            // Forwarded to the target, after the proxy's constructor invoked its own method
+            final var target = (WelcomeService) sigewine.getProxiedOriginalBeans().values().iterator().next();
+            Assertions.assertEquals(2, target.getPrefixInvocations());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package enterprises.iwakura.sigewine_aop_selective;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean
+public class WelcomeService extends DescribedService implements Greeter {
+
+    private final String prefix;
+
+    @Getter
+    private int prefixInvocations;
+
+    public WelcomeService() {
+        this.prefix = prefix();
+    }
+
+    @Override
+    public String greet(String name) {
+        return prefix + name;
+    }
+
+    @Override
+    public String describe() {
+        return "welcome " + super.describe();
+    }
+
+    public String prefix() {
+        prefixInvocations++;
+        return "Welcome, ";
+    }
+
+    protected String farewell(String name) {
+        return "Farewell, " + name;
+    }
+
+    @Override
+    public String toString() {
+        return "WelcomeService";
+    }
+}
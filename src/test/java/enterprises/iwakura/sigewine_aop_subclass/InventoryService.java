@@ -0,0 +1,41 @@
+package enterprises.iwakura.sigewine_aop_subclass;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class InventoryService {
+
+    public static final AtomicInteger CONSTRUCTED = new AtomicInteger();
+
+    private final StockRepository stockRepository;
+    private final Supplier<StockRepository> stockRepositorySupplier;
+
+    @Bean
+    private InventoryService self;
+
+    public InventoryService(StockRepository stockRepository, Supplier<StockRepository> stockRepositorySupplier) {
+        this.stockRepository = stockRepository;
+        this.stockRepositorySupplier = stockRepositorySupplier;
+        CONSTRUCTED.incrementAndGet();
+    }
+
+    @Tracked
+    public int total(List<String> items) {
+        int total = 0;
+        for (String item : items) {
+            total += count(item);
+        }
+        return total;
+    }
+
+    @Tracked
+    public int count(String item) {
+        return stockRepository.getStock(item);
+    }
+}
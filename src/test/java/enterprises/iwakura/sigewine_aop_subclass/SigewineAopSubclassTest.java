@@ -0,0 +1,46 @@
+package enterprises.iwakura.sigewine_aop_subclass;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.aop.ProxyMode;
+import enterprises.iwakura.sigewine.aop.SigewineProxy;
+import enterprises.iwakura.sigewine.aop.extension.AopExtension;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineAopSubclassTest {
+
+    @BeforeEach
+    public void reset() {
+        InventoryService.CONSTRUCTED.set(0);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        TrackedMethodWrapper trackedMethodWrapper = new TrackedMethodWrapper();
+        AopExtension aopExtension = new AopExtension(1, ProxyMode.SUBCLASS);
+        aopExtension.addMethodWrapper(trackedMethodWrapper);
+        sigewine.addExtension(aopExtension);
+
+        sigewine.scan(SigewineAopSubclassTest.class);
+        final var inventoryService = sigewine.inject(InventoryService.class);
+
+        Assertions.assertEquals(1, InventoryService.CONSTRUCTED.get());
+        Assertions.assertInstanceOf(SigewineProxy.class, inventoryService);
+        Assertions.assertTrue(sigewine.getProxiedOriginalBeans().isEmpty());
+        Assertions.assertSame(inventoryService, inventoryService.getSelf());
+        Assertions.assertSame(sigewine.inject(StockRepository.class), inventoryService.getStockRepository());
+        Assertions.assertSame(sigewine.inject(StockRepository.class), inventoryService.getStockRepositorySupplier().get());
+
+        Assertions.assertEquals(11, inventoryService.total(List.of("bow", "catalyst")));
+        Assertions.assertEquals(List.of("total", "count", "count"), trackedMethodWrapper.getInvokedMethods());
+    }
+}
@@ -0,0 +1,11 @@
+package enterprises.iwakura.sigewine_aop_subclass;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class StockRepository {
+
+    public int getStock(String item) {
+        return item.length();
+    }
+}
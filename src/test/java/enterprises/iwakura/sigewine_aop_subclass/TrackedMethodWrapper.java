@@ -0,0 +1,29 @@
+package enterprises.iwakura.sigewine_aop_subclass;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import enterprises.iwakura.sigewine.aop.MethodWrapper;
+import lombok.Getter;
+
+@Getter
+public class TrackedMethodWrapper extends MethodWrapper<Tracked> {
+
+    private final List<String> invokedMethods = new CopyOnWriteArrayList<>();
+
+    public TrackedMethodWrapper() {
+        super(Tracked.class);
+    }
+
+    @Override
+    protected void beforeInvocation(Object target, Method method, Object[] args, Tracked annotation, Object proxy) {
+        invokedMethods.add(method.getName());
+    }
+
+    @Override
+    protected void afterInvocation(Object target, Method method, Object[] args, Tracked annotation, Optional<Object> optionalResult, Optional<Throwable> optionalThrowable, Object proxy) {
+
+    }
+}
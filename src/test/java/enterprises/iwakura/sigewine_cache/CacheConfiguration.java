@@ -0,0 +1,15 @@
+package enterprises.iwakura.sigewine_cache;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+public class CacheConfiguration {
+
+    @Bean
+    public Clock clock() {
+        return new Clock();
+    }
+
+    public static class Clock {
+
+    }
+}
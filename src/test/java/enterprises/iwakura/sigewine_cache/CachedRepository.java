@@ -0,0 +1,8 @@
+package enterprises.iwakura.sigewine_cache;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class CachedRepository {
+
+}
@@ -0,0 +1,14 @@
+package enterprises.iwakura.sigewine_cache;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean
+@Getter
+@RequiredArgsConstructor
+public class CachedService {
+
+    private final CachedRepository cachedRepository;
+    private final CacheConfiguration.Clock clock;
+}
@@ -0,0 +1,60 @@
+package enterprises.iwakura.sigewine_cache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import enterprises.iwakura.sigewine.core.ScanCache;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+import lombok.SneakyThrows;
+
+public class SigewineScanCacheTest {
+
+    @TempDir
+    private Path cacheDirectory;
+
+    @Test
+    @SneakyThrows
+    public void run() {
+        final var packageName = SigewineScanCacheTest.class.getPackageName();
+        final var classLoader = SigewineScanCacheTest.class.getClassLoader();
+        final var scanCache = new ScanCache(cacheDirectory);
+        final var fingerprint = ScanCache.fingerprint(packageName, classLoader);
+
+        // Cache miss stores the scan result
+        final var scanned = scan();
+        final var cachedBeanDefinitions = scanCache.load(packageName, classLoader, fingerprint);
+        Assertions.assertNotNull(cachedBeanDefinitions);
+        Assertions.assertEquals(3, cachedBeanDefinitions.size());
+        Assertions.assertEquals(CachedService.class, cachedBeanDefinitions.get(2).getClazz());
+
+        // Cache hit registers the same beans
+        Assertions.assertEquals(scanned.getSingletonBeans().keySet(), scan().getSingletonBeans().keySet());
+
+        // Mismatching fingerprint is a cache miss
+        Assertions.assertNull(scanCache.load(packageName, classLoader, new byte[fingerprint.length]));
+
+        // Corrupted cache falls back to scanning and is replaced
+        Files.write(scanCache.getFile(packageName), new byte[] {1, 2, 3});
+        Assertions.assertNull(scanCache.load(packageName, classLoader, fingerprint));
+        Assertions.assertEquals(scanned.getSingletonBeans().keySet(), scan().getSingletonBeans().keySet());
+        Assertions.assertEquals(cachedBeanDefinitions, scanCache.load(packageName, classLoader, fingerprint));
+    }
+
+    private Sigewine scan() {
+        final var sigewine = new Sigewine(SigewineOptions.builder()
+            .useGeneratedContext(false)
+            .scanCacheDirectory(cacheDirectory)
+            .build());
+        sigewine.scan(SigewineScanCacheTest.class);
+
+        final var cachedService = sigewine.inject(CachedService.class);
+        Assertions.assertSame(sigewine.inject(CachedRepository.class), cachedService.getCachedRepository());
+        Assertions.assertSame(sigewine.inject(CacheConfiguration.Clock.class), cachedService.getClock());
+        return sigewine;
+    }
+}
@@ -1,17 +1,23 @@
 package enterprises.iwakura.sigewine_circular_dependency;
 
 import org.junit.jupiter.api.Assertions;
-import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
 
+import enterprises.iwakura.SigewineModes;
 import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
 
 public class SigewineCircularDependencyTest {
 
-    @Test
-    public void run() {
-        Sigewine sigewine = new Sigewine();
-        Assertions.assertThrows(IllegalStateException.class, () -> {
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        final var exception = Assertions.assertThrows(IllegalStateException.class, () -> {
             sigewine.scan(SigewineCircularDependencyTest.class);
         });
+        Assertions.assertTrue(exception.getMessage().contains(BeanOne.class.getName()));
+        Assertions.assertTrue(exception.getMessage().contains(BeanTwo.class.getName()));
     }
 }
@@ -0,0 +1,17 @@
+package enterprises.iwakura.sigewine_collection;
+
+import java.util.List;
+import java.util.Set;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean
+@Getter
+@RequiredArgsConstructor
+public class Broadcaster {
+
+    private final Set<EqualChannel> equalChannels;
+    private final List<Channel> channels;
+}
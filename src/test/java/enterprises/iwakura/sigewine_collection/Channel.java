@@ -0,0 +1,5 @@
+package enterprises.iwakura.sigewine_collection;
+
+public interface Channel {
+
+}
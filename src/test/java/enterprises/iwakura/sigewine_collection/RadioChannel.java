@@ -0,0 +1,8 @@
+package enterprises.iwakura.sigewine_collection;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class RadioChannel implements Channel {
+
+}
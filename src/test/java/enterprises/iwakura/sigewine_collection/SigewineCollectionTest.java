@@ -0,0 +1,46 @@
+package enterprises.iwakura.sigewine_collection;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineCollectionTest {
+
+    @BeforeEach
+    public void reset() {
+        EqualChannel.HASH_CODE_CALLS.set(0);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        sigewine.scan(SigewineCollectionTest.class);
+
+        final var broadcaster = sigewine.inject(Broadcaster.class);
+        final var alphaChannel = sigewine.inject(AlphaChannel.class);
+        final var betaChannel = sigewine.inject(BetaChannel.class);
+        final var radioChannel = sigewine.inject(RadioChannel.class);
+
+        // Equal beans are still distinct beans
+        Assertions.assertEquals(alphaChannel, betaChannel);
+        Assertions.assertEquals(2, broadcaster.getEqualChannels().size());
+        Assertions.assertTrue(broadcaster.getEqualChannels().stream().anyMatch(channel -> channel == alphaChannel));
+        Assertions.assertTrue(broadcaster.getEqualChannels().stream().anyMatch(channel -> channel == betaChannel));
+
+        // Resolved through the index of the beans' supertypes
+        Assertions.assertEquals(3, broadcaster.getChannels().size());
+        for (var channel : List.of(alphaChannel, betaChannel, radioChannel)) {
+            Assertions.assertTrue(broadcaster.getChannels().stream().anyMatch(injected -> injected == channel));
+        }
+
+        Assertions.assertEquals(0, EqualChannel.HASH_CODE_CALLS.get());
+    }
+}
@@ -0,0 +1,36 @@
+package enterprises.iwakura.sigewine_dispatch;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.extension.SigewineExtension;
+import lombok.Getter;
+
+@Getter
+public class AuditExtension extends SigewineExtension {
+
+    private final List<Class<?>> interestQueries = new CopyOnWriteArrayList<>();
+    private final List<Class<?>> processedBeans = new CopyOnWriteArrayList<>();
+
+    public AuditExtension() {
+        super(0);
+    }
+
+    @Override
+    public void processBeans(Sigewine sigewine) {
+    }
+
+    @Override
+    public Object processCreatedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
+        processedBeans.add(beanInstance.getClass());
+        return beanInstance;
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<?> beanClass) {
+        interestQueries.add(beanClass);
+        return beanClass.isAnnotationPresent(Audited.class);
+    }
+}
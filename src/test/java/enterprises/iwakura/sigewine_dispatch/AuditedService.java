@@ -0,0 +1,9 @@
+package enterprises.iwakura.sigewine_dispatch;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+@Audited
+public class AuditedService {
+
+}
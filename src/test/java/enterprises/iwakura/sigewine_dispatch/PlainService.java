@@ -0,0 +1,13 @@
+package enterprises.iwakura.sigewine_dispatch;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean
+@Getter
+@RequiredArgsConstructor
+public class PlainService {
+
+    private final AuditedService auditedService;
+}
@@ -0,0 +1,29 @@
+package enterprises.iwakura.sigewine_dispatch;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineDispatchTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        AuditExtension auditExtension = new AuditExtension();
+        sigewine.addExtension(auditExtension);
+
+        sigewine.scan(SigewineDispatchTest.class);
+
+        Assertions.assertEquals(List.of(AuditedService.class), auditExtension.getProcessedBeans());
+        Assertions.assertEquals(1, auditExtension.getInterestQueries().stream().filter(AuditedService.class::equals).count());
+        Assertions.assertEquals(1, auditExtension.getInterestQueries().stream().filter(PlainService.class::equals).count());
+        Assertions.assertSame(sigewine.inject(AuditedService.class), sigewine.inject(PlainService.class).getAuditedService());
+    }
+}
@@ -0,0 +1,12 @@
+package enterprises.iwakura.sigewine_factory;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class Expedition {
+
+    private final Compass compass;
+    private final WorldMap worldMap;
+}
@@ -0,0 +1,54 @@
+package enterprises.iwakura.sigewine_factory;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.BeanFactory;
+import enterprises.iwakura.sigewine.core.Sigewine;
+
+public class SigewineBeanFactoryTest {
+
+    @Test
+    public void of_cachesFactoryPerClass() {
+        Assertions.assertSame(BeanFactory.of(Compass.class), BeanFactory.of(Compass.class));
+        Assertions.assertEquals(Compass.class, BeanFactory.of(Compass.class).getClazz());
+    }
+
+    @Test
+    public void noArgsConstructor_createsNewInstances() {
+        final var factory = BeanFactory.of(Compass.class);
+
+        Assertions.assertEquals(List.of(), factory.getDependencies());
+        final var first = factory.newInstance(new Sigewine());
+        final var second = factory.newInstance(new Sigewine());
+        Assertions.assertInstanceOf(Compass.class, first);
+        Assertions.assertNotSame(first, second);
+    }
+
+    @Test
+    public void constructorWithParameters_resolvesDependencies() {
+        final var sigewine = new Sigewine();
+        sigewine.scan(SigewineBeanFactoryTest.class);
+        final var factory = BeanFactory.of(Expedition.class);
+
+        Assertions.assertEquals(List.of(BeanDefinition.of(Compass.class), BeanDefinition.of(WorldMap.class)),
+            factory.getDependencies().stream().map(BeanFactory.Dependency::definition).toList());
+        final var expedition = (Expedition) factory.newInstance(sigewine);
+        Assertions.assertSame(sigewine.inject(Compass.class), expedition.getCompass());
+        Assertions.assertSame(sigewine.inject(WorldMap.class), expedition.getWorldMap());
+        Assertions.assertNotSame(expedition, factory.newInstance(sigewine));
+    }
+
+    @Test
+    public void classNotOpenToLambdas_fallsBackToMethodHandle() {
+        // java.lang is not open to Sigewine, so no lambda can be defined within Object
+        final var factory = BeanFactory.of(Object.class);
+
+        final var instance = factory.newInstance(new Sigewine());
+        Assertions.assertEquals(Object.class, instance.getClass());
+        Assertions.assertNotSame(instance, factory.newInstance(new Sigewine()));
+    }
+}
@@ -0,0 +1,5 @@
+package enterprises.iwakura.sigewine_fields;
+
+public class Antenna {
+
+}
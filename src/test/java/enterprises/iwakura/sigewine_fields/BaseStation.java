@@ -0,0 +1,11 @@
+package enterprises.iwakura.sigewine_fields;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Getter
+public class BaseStation {
+
+    @Bean
+    private Antenna antenna;
+}
@@ -0,0 +1,9 @@
+package enterprises.iwakura.sigewine_fields;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+public class BrokenStation {
+
+    @Bean
+    private static final Antenna ANTENNA = null;
+}
@@ -0,0 +1,6 @@
+package enterprises.iwakura.sigewine_fields;
+
+public class EmptyStation {
+
+    private Antenna antenna;
+}
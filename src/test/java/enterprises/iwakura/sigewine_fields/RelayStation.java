@@ -0,0 +1,26 @@
+package enterprises.iwakura.sigewine_fields;
+
+import java.util.List;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+public class RelayStation extends BaseStation {
+
+    @Bean
+    private static Antenna sharedAntenna;
+
+    @Bean
+    private final Antenna backupAntenna = null;
+
+    // Collections are not injected into fields
+    @Bean
+    private List<Antenna> antennas;
+
+    public static Antenna getSharedAntenna() {
+        return sharedAntenna;
+    }
+
+    public Antenna getBackupAntenna() {
+        return backupAntenna;
+    }
+}
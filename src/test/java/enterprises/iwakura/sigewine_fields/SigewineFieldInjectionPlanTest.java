@@ -0,0 +1,57 @@
+package enterprises.iwakura.sigewine_fields;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.extension.FieldInjectionPlan;
+
+public class SigewineFieldInjectionPlanTest {
+
+    @Test
+    public void plan_injectsInheritedStaticAndFinalFields() {
+        final var plan = FieldInjectionPlan.of(RelayStation.class);
+        final var injectionPoints = plan.getInjectionPoints().stream()
+            .collect(Collectors.toMap(injectionPoint -> injectionPoint.field().getName(), injectionPoint -> injectionPoint));
+
+        Assertions.assertSame(plan, FieldInjectionPlan.of(RelayStation.class));
+        Assertions.assertEquals(Set.of("antenna", "sharedAntenna", "backupAntenna"), injectionPoints.keySet());
+        for (var injectionPoint : injectionPoints.values()) {
+            Assertions.assertEquals(BeanDefinition.of(Antenna.class), injectionPoint.beanDefinition());
+        }
+
+        final var relayStation = new RelayStation();
+        final var antenna = new Antenna();
+        final var sharedAntenna = new Antenna();
+        final var backupAntenna = new Antenna();
+        try {
+            injectionPoints.get("antenna").set(relayStation, antenna);
+            injectionPoints.get("sharedAntenna").set(relayStation, sharedAntenna);
+            injectionPoints.get("backupAntenna").set(relayStation, backupAntenna);
+
+            Assertions.assertSame(antenna, relayStation.getAntenna());
+            Assertions.assertSame(sharedAntenna, RelayStation.getSharedAntenna());
+            Assertions.assertSame(backupAntenna, relayStation.getBackupAntenna());
+            Assertions.assertSame(antenna, injectionPoints.get("antenna").get(relayStation));
+            Assertions.assertSame(sharedAntenna, injectionPoints.get("sharedAntenna").get(null));
+            Assertions.assertSame(backupAntenna, injectionPoints.get("backupAntenna").get(relayStation));
+        } finally {
+            injectionPoints.get("sharedAntenna").set(null, null);
+        }
+    }
+
+    @Test
+    public void plan_isEmptyWithoutInjectableFields() {
+        Assertions.assertTrue(FieldInjectionPlan.of(EmptyStation.class).isEmpty());
+    }
+
+    @Test
+    public void plan_rejectsStaticFinalFields() {
+        final var exception = Assertions.assertThrows(IllegalArgumentException.class, () -> FieldInjectionPlan.of(BrokenStation.class));
+        Assertions.assertTrue(exception.getMessage().contains("ANTENNA"));
+        Assertions.assertTrue(exception.getMessage().contains(BrokenStation.class.getName()));
+    }
+}
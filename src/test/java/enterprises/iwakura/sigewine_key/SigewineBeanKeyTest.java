@@ -0,0 +1,44 @@
+package enterprises.iwakura.sigewine_key;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.BeanKey;
+
+public class SigewineBeanKeyTest {
+
+    @Test
+    public void of_internsKeysPerTypeAndName() {
+        final var key = BeanKey.of(String.class, "region");
+
+        Assertions.assertSame(key, BeanKey.of(String.class, "region"));
+        Assertions.assertSame(key, BeanKey.of(String.class, new String("region")));
+        Assertions.assertEquals(String.class, key.getType());
+        Assertions.assertEquals("region", key.getName());
+
+        Assertions.assertNotSame(key, BeanKey.of(String.class, "nation"));
+        Assertions.assertNotSame(key, BeanKey.of(CharSequence.class, "region"));
+        Assertions.assertNotEquals(key, BeanKey.of(String.class, ""));
+    }
+
+    @Test
+    public void of_treatsNullNameAsUnnamed() {
+        final var key = BeanKey.of(String.class, null);
+
+        Assertions.assertSame(BeanKey.of(String.class, ""), key);
+        Assertions.assertEquals("", key.getName());
+        Assertions.assertThrows(NullPointerException.class, () -> BeanKey.of(null, "region"));
+    }
+
+    @Test
+    public void beanDefinitions_shareInternedKeys() {
+        final var first = BeanDefinition.of(String.class, "region");
+        final var second = new BeanDefinition("region", String.class, null);
+
+        Assertions.assertSame(first.getKey(), second.getKey());
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+        Assertions.assertNotEquals(first, BeanDefinition.of(String.class));
+    }
+}
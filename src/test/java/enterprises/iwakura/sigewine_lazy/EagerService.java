@@ -0,0 +1,8 @@
+package enterprises.iwakura.sigewine_lazy;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class EagerService {
+
+}
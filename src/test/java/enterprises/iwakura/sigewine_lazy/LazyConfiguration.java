@@ -0,0 +1,20 @@
+package enterprises.iwakura.sigewine_lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+public class LazyConfiguration {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    @Bean(lazy = true)
+    public BatchJob batchJob() {
+        CREATED.incrementAndGet();
+        return new BatchJob();
+    }
+
+    public static class BatchJob {
+
+    }
+}
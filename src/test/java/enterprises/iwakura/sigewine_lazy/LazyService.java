@@ -0,0 +1,20 @@
+package enterprises.iwakura.sigewine_lazy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean(lazy = true)
+@Getter
+public class LazyService {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    @Bean
+    private EagerService eagerService;
+
+    public LazyService() {
+        CREATED.incrementAndGet();
+    }
+}
@@ -0,0 +1,53 @@
+package enterprises.iwakura.sigewine_lazy;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+import lombok.SneakyThrows;
+
+public class SigewineLazyTest {
+
+    @BeforeEach
+    public void reset() {
+        LazyService.CREATED.set(0);
+        LazyConfiguration.CREATED.set(0);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    @SneakyThrows
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        sigewine.scan(SigewineLazyTest.class);
+        sigewine.seal();
+
+        Assertions.assertEquals(0, LazyService.CREATED.get());
+        Assertions.assertEquals(0, LazyConfiguration.CREATED.get());
+        Assertions.assertTrue(sigewine.getSingletonBeans().values().stream().noneMatch(LazyService.class::isInstance));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var tasks = new ArrayList<Callable<LazyService>>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(() -> sigewine.inject(LazyService.class));
+            }
+            final var lazyService = sigewine.inject(LazyService.class);
+            for (var future : executor.invokeAll(tasks)) {
+                Assertions.assertSame(lazyService, future.get());
+            }
+            Assertions.assertSame(sigewine.inject(EagerService.class), lazyService.getEagerService());
+        }
+
+        Assertions.assertEquals(1, LazyService.CREATED.get());
+        Assertions.assertSame(sigewine.inject(LazyConfiguration.BatchJob.class), sigewine.inject(LazyConfiguration.BatchJob.class));
+        Assertions.assertEquals(1, LazyConfiguration.CREATED.get());
+    }
+}
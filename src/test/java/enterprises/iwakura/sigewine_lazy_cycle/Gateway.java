@@ -0,0 +1,16 @@
+package enterprises.iwakura.sigewine_lazy_cycle;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean(lazy = true)
+@Getter
+public class Gateway {
+
+    @Bean
+    private Ledger ledger;
+
+    public Gateway() {
+        SigewineLazyCycleTest.awaitOtherConstructor();
+    }
+}
@@ -0,0 +1,49 @@
+package enterprises.iwakura.sigewine_lazy_cycle;
+
+import java.time.Duration;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+import lombok.SneakyThrows;
+
+public class SigewineLazyCycleTest {
+
+    /**
+     * Lets both constructors run at the same time, if the container allows it.
+     */
+    private static final CyclicBarrier CONSTRUCTORS = new CyclicBarrier(2);
+
+    @SneakyThrows
+    static void awaitOtherConstructor() {
+        try {
+            CONSTRUCTORS.await(200, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | BrokenBarrierException ignored) {
+            // The other bean is not being created concurrently
+        }
+    }
+
+    @Test
+    public void concurrentAccess_doesNotDeadlock() {
+        Sigewine sigewine = new Sigewine(SigewineOptions.builder().build());
+        sigewine.scan(SigewineLazyCycleTest.class);
+        sigewine.seal();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            try (var executor = Executors.newFixedThreadPool(2)) {
+                final var gateway = executor.submit(() -> sigewine.inject(Gateway.class));
+                final var ledger = executor.submit(() -> sigewine.inject(Ledger.class));
+
+                Assertions.assertSame(ledger.get(), gateway.get().getLedger());
+                Assertions.assertSame(gateway.get(), ledger.get().getGateway());
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package enterprises.iwakura.sigewine_meta;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Service {
+
+}
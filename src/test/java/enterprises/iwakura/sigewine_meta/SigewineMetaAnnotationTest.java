@@ -0,0 +1,35 @@
+package enterprises.iwakura.sigewine_meta;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.BeanIndex;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineMetaAnnotationTest {
+
+    @Test
+    public void beanIndex_knowsIndexedClasspathRoots() {
+        final var beanIndex = BeanIndex.load("", getClass().getClassLoader());
+
+        Assertions.assertNotNull(beanIndex);
+        // Test classes are compiled with sigewine-processor, sigewine-core is not
+        Assertions.assertTrue(beanIndex.isIndexed(getClass().getProtectionDomain().getCodeSource().getLocation()));
+        Assertions.assertFalse(beanIndex.isIndexed(Sigewine.class.getProtectionDomain().getCodeSource().getLocation()));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        sigewine.scan(SigewineMetaAnnotationTest.class);
+
+        Assertions.assertNotNull(sigewine.getSingletonBean(BeanDefinition.of(WishRepository.class)));
+        Assertions.assertSame(sigewine.inject(WishRepository.class), sigewine.inject(WishService.class).getWishRepository());
+    }
+}
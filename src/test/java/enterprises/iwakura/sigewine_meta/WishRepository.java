@@ -0,0 +1,6 @@
+package enterprises.iwakura.sigewine_meta;
+
+@Service
+public class WishRepository {
+
+}
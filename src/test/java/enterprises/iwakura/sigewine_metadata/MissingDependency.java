@@ -0,0 +1,8 @@
+package enterprises.iwakura.sigewine_metadata;
+
+/**
+ * Stands for a class of an optional dependency, hidden from {@link OptionalIntegration} in the test.
+ */
+public class MissingDependency {
+
+}
@@ -0,0 +1,23 @@
+package enterprises.iwakura.sigewine_metadata;
+
+import java.util.List;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+public class OptionalIntegration {
+
+    @Bean
+    private String region;
+
+    @Bean
+    private List<String> regions;
+
+    private MissingDependency missingDependency;
+
+    public OptionalIntegration() {
+    }
+
+    public MissingDependency getMissingDependency() {
+        return missingDependency;
+    }
+}
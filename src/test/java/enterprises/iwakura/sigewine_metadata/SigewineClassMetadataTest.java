@@ -0,0 +1,74 @@
+package enterprises.iwakura.sigewine_metadata;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.utils.ClassMetadata;
+import lombok.SneakyThrows;
+
+public class SigewineClassMetadataTest {
+
+    @Test
+    public void of_cachesMetadataPerClass() {
+        Assertions.assertSame(ClassMetadata.of(OptionalIntegration.class), ClassMetadata.of(OptionalIntegration.class));
+        Assertions.assertSame(ClassMetadata.of(OptionalIntegration.class).getFields(),
+            ClassMetadata.of(OptionalIntegration.class).getFields());
+    }
+
+    @Test
+    @SneakyThrows
+    public void members_areResolvedOnFirstUse() {
+        final var metadata = ClassMetadata.of(OptionalIntegration.class);
+
+        Assertions.assertNull(metadata.getBeanAnnotation());
+        Assertions.assertTrue(metadata.hasOneConstructor());
+        Assertions.assertEquals(OptionalIntegration.class.getConstructor(), metadata.getConstructor());
+        Assertions.assertEquals(List.of(OptionalIntegration.class.getDeclaredField("region")), metadata.getInjectableFields());
+        Assertions.assertEquals(List.of(), metadata.getBeanMethods());
+    }
+
+    @Test
+    @SneakyThrows
+    public void missingDependency_failsOnlyMembersReferringToIt() {
+        final var clazz = new HidingClassLoader().loadClass(OptionalIntegration.class.getName());
+        final var metadata = ClassMetadata.of(clazz);
+
+        Assertions.assertNull(metadata.getBeanAnnotation());
+        Assertions.assertTrue(metadata.hasOneConstructor());
+        Assertions.assertThrows(NoClassDefFoundError.class, metadata::getFields);
+        Assertions.assertThrows(NoClassDefFoundError.class, metadata::getBeanMethods);
+    }
+
+    /**
+     * Loads {@link OptionalIntegration} on its own, without being able to load {@link MissingDependency}.
+     */
+    private static final class HidingClassLoader extends ClassLoader {
+
+        private HidingClassLoader() {
+            super(SigewineClassMetadataTest.class.getClassLoader());
+        }
+
+        @Override
+        @SneakyThrows
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                if (name.equals(MissingDependency.class.getName())) {
+                    throw new ClassNotFoundException(name);
+                }
+                if (name.equals(OptionalIntegration.class.getName())) {
+                    var clazz = findLoadedClass(name);
+                    if (clazz == null) {
+                        try (var input = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                            final var bytes = input.readAllBytes();
+                            clazz = defineClass(name, bytes, 0, bytes.length);
+                        }
+                    }
+                    return clazz;
+                }
+                return super.loadClass(name, resolve);
+            }
+        }
+    }
+}
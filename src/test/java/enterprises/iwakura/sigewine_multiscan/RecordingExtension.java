@@ -0,0 +1,35 @@
+package enterprises.iwakura.sigewine_multiscan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.extension.SigewineExtension;
+import lombok.Getter;
+
+@Getter
+public class RecordingExtension extends SigewineExtension {
+
+    private final List<List<Class<?>>> processedBeans = new ArrayList<>();
+
+    public RecordingExtension() {
+        super(0);
+    }
+
+    @Override
+    public void processBeans(Sigewine sigewine) {
+        throw new IllegalStateException("Expected only new beans to be processed");
+    }
+
+    @Override
+    public void processBeans(Sigewine sigewine, Collection<BeanDefinition> newBeans) {
+        processedBeans.add(newBeans.stream().<Class<?>>map(BeanDefinition::getClazz).toList());
+    }
+
+    @Override
+    public Object processCreatedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
+        return beanInstance;
+    }
+}
@@ -0,0 +1,48 @@
+package enterprises.iwakura.sigewine_multiscan;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+import enterprises.iwakura.sigewine_multiscan.module_a.PluginA;
+import enterprises.iwakura.sigewine_multiscan.module_a.PluginHost;
+import enterprises.iwakura.sigewine_multiscan.module_b.PluginB;
+import enterprises.iwakura.sigewine_multiscan.module_b.PluginSession;
+
+public class SigewineMultiScanTest {
+
+    @BeforeEach
+    public void reset() {
+        PluginSession.CREATED.set(0);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        RecordingExtension recordingExtension = new RecordingExtension();
+        sigewine.addExtension(recordingExtension);
+
+        sigewine.scan(PluginA.class);
+        sigewine.scan(PluginB.class);
+        sigewine.scan(PluginB.class.getPackageName() + ".empty", PluginB.class.getClassLoader());
+
+        Assertions.assertEquals(List.of(
+            List.of(Sigewine.class, PluginA.class, PluginHost.class),
+            List.of(PluginB.class),
+            List.of()
+        ), recordingExtension.getProcessedBeans());
+        Assertions.assertSame(sigewine.inject(PluginA.class), sigewine.inject(PluginB.class).getPluginA());
+        // Forward reference, injected with an unmanaged instance by the first scan
+        Assertions.assertSame(sigewine.inject(PluginB.class), sigewine.inject(PluginHost.class).getPluginB());
+        // Prototype beans registered later are not created to re-inject earlier beans
+        Assertions.assertEquals(1, PluginSession.CREATED.get());
+        Assertions.assertNotNull(sigewine.inject(PluginHost.class).getPluginSession());
+    }
+}
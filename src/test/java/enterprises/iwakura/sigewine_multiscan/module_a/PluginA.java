@@ -0,0 +1,8 @@
+package enterprises.iwakura.sigewine_multiscan.module_a;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class PluginA {
+
+}
@@ -0,0 +1,19 @@
+package enterprises.iwakura.sigewine_multiscan.module_a;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine_multiscan.module_b.PluginB;
+import enterprises.iwakura.sigewine_multiscan.module_b.PluginSession;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class PluginHost {
+
+    // Registered as a bean only by the scan of module B
+    @Bean
+    private PluginB pluginB;
+
+    // Registered as a prototype bean only by the scan of module B
+    @Bean
+    private PluginSession pluginSession;
+}
@@ -0,0 +1,13 @@
+package enterprises.iwakura.sigewine_multiscan.module_b;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine_multiscan.module_a.PluginA;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class PluginB {
+
+    @Bean
+    private PluginA pluginA;
+}
@@ -0,0 +1,16 @@
+package enterprises.iwakura.sigewine_multiscan.module_b;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+
+@Bean(scope = BeanScope.PROTOTYPE)
+public class PluginSession {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public PluginSession() {
+        CREATED.incrementAndGet();
+    }
+}
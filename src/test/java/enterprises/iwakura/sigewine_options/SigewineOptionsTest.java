@@ -0,0 +1,29 @@
+package enterprises.iwakura.sigewine_options;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineOptionsTest {
+
+    @Test
+    public void noArgsConstructor_usesBuilderDefaults() {
+        final var sigewineOptions = new SigewineOptions();
+
+        Assertions.assertEquals(SigewineOptions.builder().build(), sigewineOptions);
+        Assertions.assertEquals(500, sigewineOptions.getInjectBeanExtensionPriority());
+        Assertions.assertTrue(sigewineOptions.isRegisterItselfAsBean());
+        Assertions.assertTrue(sigewineOptions.isUseBeanIndex());
+        Assertions.assertTrue(sigewineOptions.isUseGeneratedContext());
+        Assertions.assertEquals(256, sigewineOptions.getParallelProcessingChunkSize());
+    }
+
+    @Test
+    public void defaultSigewine_usesDocumentedDefaults() {
+        final var sigewine = new Sigewine();
+
+        Assertions.assertEquals(SigewineOptions.builder().build(), sigewine.getSigewineOptions());
+    }
+}
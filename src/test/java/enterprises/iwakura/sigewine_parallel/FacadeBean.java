@@ -0,0 +1,23 @@
+package enterprises.iwakura.sigewine_parallel;
+
+import java.util.List;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class FacadeBean {
+
+    private final PoolBean poolBean;
+    private final ModelBean modelBean;
+    private final ParserConfiguration.Parser parser;
+    private final List<SlowBean> slowBeans;
+
+    public FacadeBean(PoolBean poolBean, ModelBean modelBean, ParserConfiguration.Parser parser, List<SlowBean> slowBeans) {
+        this.poolBean = poolBean;
+        this.modelBean = modelBean;
+        this.parser = parser;
+        this.slowBeans = slowBeans;
+    }
+}
@@ -0,0 +1,16 @@
+package enterprises.iwakura.sigewine_parallel;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class ModelBean extends SlowBean {
+
+    private final ConfigBean configBean;
+
+    public ModelBean(ConfigBean configBean) {
+        this.configBean = configBean;
+        SigewineParallelTest.awaitIndependentBean();
+    }
+}
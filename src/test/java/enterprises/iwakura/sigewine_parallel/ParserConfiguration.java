@@ -0,0 +1,15 @@
+package enterprises.iwakura.sigewine_parallel;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+public class ParserConfiguration {
+
+    @Bean
+    public Parser parser() {
+        return new Parser();
+    }
+
+    public static class Parser extends SlowBean {
+
+    }
+}
@@ -0,0 +1,56 @@
+package enterprises.iwakura.sigewine_parallel;
+
+import java.util.ArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+import lombok.SneakyThrows;
+
+public class SigewineParallelTest {
+
+    /**
+     * Barrier the constructors of the independent {@link PoolBean} and {@link ModelBean} wait at, null to not wait.
+     * If they are not created at the same time, the barrier times out and the scan fails.
+     */
+    private static volatile CyclicBarrier independentBeans;
+
+    @SneakyThrows
+    static void awaitIndependentBean() {
+        final var barrier = independentBeans;
+        if (barrier != null) {
+            barrier.await(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void run() {
+        final var sequential = scan(false);
+        final var parallel = scan(true);
+
+        // Same registry as in a sequential run
+        Assertions.assertEquals(new ArrayList<>(sequential.getSingletonBeans().keySet()), new ArrayList<>(parallel.getSingletonBeans().keySet()));
+
+        final var facadeBean = parallel.inject(FacadeBean.class);
+        Assertions.assertSame(parallel.inject(PoolBean.class), facadeBean.getPoolBean());
+        Assertions.assertSame(parallel.inject(ModelBean.class), facadeBean.getModelBean());
+        Assertions.assertSame(parallel.inject(ParserConfiguration.Parser.class), facadeBean.getParser());
+        Assertions.assertSame(parallel.inject(ConfigBean.class), facadeBean.getPoolBean().getConfigBean());
+        Assertions.assertSame(parallel.inject(ConfigBean.class), facadeBean.getModelBean().getConfigBean());
+        Assertions.assertEquals(3, facadeBean.getSlowBeans().size());
+    }
+
+    private static Sigewine scan(boolean parallelInstantiation) {
+        independentBeans = parallelInstantiation ? new CyclicBarrier(2) : null;
+        final var sigewine = new Sigewine(SigewineOptions.builder()
+            .useGeneratedContext(false)
+            .parallelInstantiation(parallelInstantiation)
+            .build());
+        sigewine.scan(SigewineParallelTest.class);
+        return sigewine;
+    }
+}
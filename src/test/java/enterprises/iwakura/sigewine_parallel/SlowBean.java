@@ -0,0 +1,15 @@
+package enterprises.iwakura.sigewine_parallel;
+
+/**
+ * Bean that takes a while to construct, e.g. opens a pool.
+ */
+public abstract class SlowBean {
+
+    protected SlowBean() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package enterprises.iwakura.sigewine_parallel_processing;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class SecondService {
+
+    @Bean
+    private ThirdService thirdService;
+}
@@ -0,0 +1,38 @@
+package enterprises.iwakura.sigewine_parallel_processing;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineParallelProcessingTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions
+            .parallelProcessingChunkSize(1)
+            .build());
+        ThreadRecordingExtension threadRecordingExtension = new ThreadRecordingExtension();
+        sigewine.addExtension(threadRecordingExtension);
+
+        sigewine.scan(SigewineParallelProcessingTest.class);
+
+        final var firstService = sigewine.inject(FirstService.class);
+        final var secondService = sigewine.inject(SecondService.class);
+        final var thirdService = sigewine.inject(ThirdService.class);
+
+        Assertions.assertEquals(4, threadRecordingExtension.getProcessedBeans().size());
+        Assertions.assertEquals(Set.of(Sigewine.class, FirstService.class, SecondService.class, ThirdService.class),
+            Set.copyOf(threadRecordingExtension.getProcessedBeans()));
+        Assertions.assertFalse(threadRecordingExtension.getThreads().contains(Thread.currentThread()));
+        Assertions.assertSame(secondService, firstService.getSecondService());
+        Assertions.assertSame(thirdService, secondService.getThirdService());
+        Assertions.assertSame(firstService, thirdService.getFirstService());
+    }
+}
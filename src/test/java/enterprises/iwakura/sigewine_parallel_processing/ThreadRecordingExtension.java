@@ -0,0 +1,49 @@
+package enterprises.iwakura.sigewine_parallel_processing;
+
+import java.util.Collection;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.extension.SigewineExtension;
+import lombok.Getter;
+
+@Getter
+public class ThreadRecordingExtension extends SigewineExtension {
+
+    private final Queue<Class<?>> processedBeans = new ConcurrentLinkedQueue<>();
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    public ThreadRecordingExtension() {
+        super(0);
+    }
+
+    @Override
+    public void processBeans(Sigewine sigewine) {
+        throw new IllegalStateException("Expected beans to be processed one by one");
+    }
+
+    @Override
+    public void processBeans(Sigewine sigewine, Collection<BeanDefinition> newBeans) {
+        throw new IllegalStateException("Expected beans to be processed one by one");
+    }
+
+    @Override
+    public boolean isParallelSafe() {
+        return true;
+    }
+
+    @Override
+    public void processBean(Sigewine sigewine, BeanDefinition beanDefinition, Object bean) {
+        processedBeans.add(bean.getClass());
+        threads.add(Thread.currentThread());
+    }
+
+    @Override
+    public Object processCreatedBeanInstance(Object beanInstance, BeanDefinition beanDefinition, Sigewine sigewine) {
+        return beanInstance;
+    }
+}
@@ -0,0 +1,20 @@
+package enterprises.iwakura.sigewine_prototype;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+
+public class PrototypeConfiguration {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    @Bean(scope = BeanScope.PROTOTYPE)
+    public Request request() {
+        return new Request(CREATED.incrementAndGet());
+    }
+
+    public record Request(int id) {
+
+    }
+}
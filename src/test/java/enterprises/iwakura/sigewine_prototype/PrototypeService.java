@@ -0,0 +1,17 @@
+package enterprises.iwakura.sigewine_prototype;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean(scope = BeanScope.PROTOTYPE)
+@Getter
+@RequiredArgsConstructor
+public class PrototypeService {
+
+    private final SingletonService singletonService;
+
+    @Bean
+    private SingletonService injectedSingletonService;
+}
@@ -0,0 +1,39 @@
+package enterprises.iwakura.sigewine_prototype;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewinePrototypeTest {
+
+    @BeforeEach
+    public void reset() {
+        PrototypeConfiguration.CREATED.set(0);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        sigewine.scan(SigewinePrototypeTest.class);
+        sigewine.seal();
+
+        Assertions.assertEquals(0, PrototypeConfiguration.CREATED.get());
+        Assertions.assertTrue(sigewine.getSingletonBeans().values().stream().noneMatch(PrototypeService.class::isInstance));
+
+        final var singletonService = sigewine.inject(SingletonService.class);
+        final var first = sigewine.inject(PrototypeService.class);
+        final var second = sigewine.inject(PrototypeService.class);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertSame(singletonService, first.getSingletonService());
+        Assertions.assertSame(singletonService, second.getInjectedSingletonService());
+
+        Assertions.assertNotEquals(sigewine.inject(PrototypeConfiguration.Request.class), sigewine.inject(PrototypeConfiguration.Request.class));
+        Assertions.assertEquals(2, PrototypeConfiguration.CREATED.get());
+    }
+}
@@ -0,0 +1,8 @@
+package enterprises.iwakura.sigewine_prototype;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+
+@Bean
+public class SingletonService {
+
+}
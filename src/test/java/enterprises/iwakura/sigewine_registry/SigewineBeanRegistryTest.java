@@ -0,0 +1,111 @@
+package enterprises.iwakura.sigewine_registry;
+
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.BeanRegistry;
+
+public class SigewineBeanRegistryTest {
+
+    @Test
+    public void exactNameMatch_findsBeansThroughSupertypesAndInterfaces() {
+        final var formalGreeter = new FormalGreeter();
+        final var registry = new BeanRegistry();
+        registry.register(BeanDefinition.of(FormalGreeter.class, "formal"), formalGreeter);
+
+        assertSealedAndUnsealed(registry, sealable -> {
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(FormalGreeter.class, "formal"), true));
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(AbstractGreeter.class, "formal"), true));
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(Greeter.class, "formal"), true));
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(Object.class, "formal"), true));
+            Assertions.assertNull(sealable.find(BeanDefinition.of(Greeter.class, "casual"), true));
+            Assertions.assertNull(sealable.find(BeanDefinition.of(Greeter.class), true));
+        });
+    }
+
+    @Test
+    public void namedQuery_matchesUnnamedBeanRegisteredFirst() {
+        final var casualGreeter = new CasualGreeter();
+        final var formalGreeter = new FormalGreeter();
+        final var registry = new BeanRegistry();
+        registry.register(BeanDefinition.of(CasualGreeter.class), casualGreeter);
+        registry.register(BeanDefinition.of(FormalGreeter.class, "formal"), formalGreeter);
+
+        assertSealedAndUnsealed(registry, sealable -> {
+            Assertions.assertSame(casualGreeter, sealable.find(BeanDefinition.of(Greeter.class, "formal"), false));
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(Greeter.class, "formal"), true));
+            Assertions.assertSame(casualGreeter, sealable.find(BeanDefinition.of(Greeter.class, "other"), false));
+        });
+    }
+
+    @Test
+    public void namedQuery_matchesNamedBeanRegisteredFirst() {
+        final var casualGreeter = new CasualGreeter();
+        final var formalGreeter = new FormalGreeter();
+        final var registry = new BeanRegistry();
+        registry.register(BeanDefinition.of(FormalGreeter.class, "formal"), formalGreeter);
+        registry.register(BeanDefinition.of(CasualGreeter.class), casualGreeter);
+
+        assertSealedAndUnsealed(registry, sealable -> {
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(Greeter.class, "formal"), false));
+            Assertions.assertSame(casualGreeter, sealable.find(BeanDefinition.of(Greeter.class, "other"), false));
+            Assertions.assertSame(casualGreeter, sealable.find(BeanDefinition.of(Greeter.class), true));
+        });
+    }
+
+    @Test
+    public void unnamedQuery_matchesNamedBean() {
+        final var formalGreeter = new FormalGreeter();
+        final var registry = new BeanRegistry();
+        registry.register(BeanDefinition.of(FormalGreeter.class, "formal"), formalGreeter);
+
+        assertSealedAndUnsealed(registry, sealable -> {
+            Assertions.assertSame(formalGreeter, sealable.find(BeanDefinition.of(Greeter.class), false));
+            Assertions.assertTrue(sealable.contains(BeanDefinition.of(Greeter.class), false));
+            Assertions.assertFalse(sealable.contains(BeanDefinition.of(Greeter.class), true));
+        });
+    }
+
+    @Test
+    public void misses_areNotContained() {
+        final var registry = new BeanRegistry();
+        registry.register(BeanDefinition.of(FormalGreeter.class, "formal"), new FormalGreeter());
+
+        assertSealedAndUnsealed(registry, sealable -> {
+            Assertions.assertFalse(sealable.contains(BeanDefinition.of(CasualGreeter.class), false));
+            Assertions.assertFalse(sealable.contains(BeanDefinition.of(CasualGreeter.class, "formal"), true));
+            Assertions.assertFalse(sealable.contains(BeanDefinition.of(Runnable.class), false));
+            Assertions.assertFalse(sealable.contains(BeanDefinition.of(Greeter.class, "casual"), false));
+            Assertions.assertFalse(sealable.contains(BeanDefinition.of(Greeter.class, "casual"), true));
+            Assertions.assertFalse(sealable.contains(null, false));
+        });
+    }
+
+    /**
+     * Runs the assertions against the registry, then seals it and runs them again against the immutable indexes.
+     */
+    private static void assertSealedAndUnsealed(BeanRegistry registry, Consumer<BeanRegistry> assertions) {
+        assertions.accept(registry);
+        registry.seal();
+        assertions.accept(registry);
+    }
+
+    public interface Greeter {
+
+    }
+
+    public abstract static class AbstractGreeter implements Greeter {
+
+    }
+
+    public static class FormalGreeter extends AbstractGreeter {
+
+    }
+
+    public static class CasualGreeter implements Greeter {
+
+    }
+}
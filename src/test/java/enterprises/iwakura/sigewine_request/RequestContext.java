@@ -0,0 +1,19 @@
+package enterprises.iwakura.sigewine_request;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.scope.BeanScope;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean(scope = BeanScope.REQUEST)
+@Getter
+@RequiredArgsConstructor
+public class RequestContext {
+
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    private final int id = CREATED.incrementAndGet();
+    private final TenantService tenantService;
+}
@@ -0,0 +1,69 @@
+package enterprises.iwakura.sigewine_request;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+import lombok.SneakyThrows;
+
+public class SigewineRequestTest {
+
+    @BeforeEach
+    public void reset() {
+        RequestContext.CREATED.set(0);
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    @SneakyThrows
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        sigewine.scan(SigewineRequestTest.class);
+        sigewine.seal();
+
+        final var tenantService = sigewine.inject(TenantService.class);
+        Assertions.assertEquals(0, RequestContext.CREATED.get());
+        Assertions.assertThrows(IllegalStateException.class, () -> sigewine.inject(RequestContext.class));
+        Assertions.assertThrows(IllegalStateException.class, () -> tenantService.getRequestContext().getBeanInstance());
+
+        final var first = sigewine.runInScope(() -> {
+            final var requestContext = sigewine.inject(RequestContext.class);
+            Assertions.assertSame(requestContext, sigewine.inject(RequestContext.class));
+            Assertions.assertSame(requestContext, tenantService.getRequestContext().getBeanInstance());
+            Assertions.assertSame(tenantService, requestContext.getTenantService());
+
+            final var nested = sigewine.runInScope(() -> sigewine.inject(RequestContext.class));
+            Assertions.assertNotSame(requestContext, nested);
+            Assertions.assertSame(requestContext, sigewine.inject(RequestContext.class));
+            return requestContext;
+        });
+        final var second = sigewine.runInScope(() -> tenantService.getRequestContext().getBeanInstance());
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(3, RequestContext.CREATED.get());
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var tasks = new ArrayList<Callable<RequestContext>>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(() -> sigewine.runInScope(() -> {
+                    final var requestContext = tenantService.getRequestContext().getBeanInstance();
+                    Assertions.assertSame(requestContext, sigewine.inject(RequestContext.class));
+                    return requestContext;
+                }));
+            }
+            final var ids = new HashSet<Integer>();
+            for (var future : executor.invokeAll(tasks)) {
+                ids.add(future.get().getId());
+            }
+            Assertions.assertEquals(100, ids.size());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package enterprises.iwakura.sigewine_request;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import enterprises.iwakura.sigewine.core.utils.BeanAccessor;
+import lombok.Getter;
+
+@Bean
+@Getter
+public class TenantService {
+
+    @Bean
+    private final BeanAccessor<RequestContext> requestContext = new BeanAccessor<>(RequestContext.class);
+}
@@ -0,0 +1,43 @@
+package enterprises.iwakura.sigewine_seal;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import lombok.SneakyThrows;
+
+public class SigewineSealTest {
+
+    @Test
+    @SneakyThrows
+    public void run() {
+        Sigewine sigewine = new Sigewine();
+        sigewine.scan(SigewineSealTest.class);
+        sigewine.seal();
+
+        Assertions.assertTrue(sigewine.isSealed());
+        final var sealedBean = sigewine.inject(SealedBean.class);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final var tasks = new ArrayList<Callable<SealedBean>>();
+            for (int i = 0; i < 100; i++) {
+                tasks.add(() -> sigewine.inject(SealedBean.class));
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                Assertions.assertSame(sealedBean, future.get());
+            }
+        }
+
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            sigewine.registerBean(BeanDefinition.of(String.class, "someString"), "value");
+        });
+        Assertions.assertThrows(IllegalStateException.class, () -> {
+            sigewine.scan(SigewineSealTest.class);
+        });
+    }
+}
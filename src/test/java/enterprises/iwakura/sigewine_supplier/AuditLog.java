@@ -0,0 +1,5 @@
+package enterprises.iwakura.sigewine_supplier;
+
+public class AuditLog {
+
+}
@@ -0,0 +1,13 @@
+package enterprises.iwakura.sigewine_supplier;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean
+@Getter
+@RequiredArgsConstructor
+public class CustomerService {
+
+    private final OrderService orderService;
+}
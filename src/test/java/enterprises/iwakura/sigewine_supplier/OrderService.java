@@ -0,0 +1,15 @@
+package enterprises.iwakura.sigewine_supplier;
+
+import java.util.function.Supplier;
+
+import enterprises.iwakura.sigewine.core.annotations.Bean;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Bean
+@Getter
+@RequiredArgsConstructor
+public class OrderService {
+
+    private final Supplier<CustomerService> customerService;
+}
@@ -0,0 +1,65 @@
+package enterprises.iwakura.sigewine_supplier;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import enterprises.iwakura.SigewineModes;
+import enterprises.iwakura.sigewine.core.BeanDefinition;
+import enterprises.iwakura.sigewine.core.Sigewine;
+import enterprises.iwakura.sigewine.core.SigewineOptions;
+
+public class SigewineSupplierTest {
+
+    @ParameterizedTest
+    @ArgumentsSource(SigewineModes.class)
+    public void run(SigewineOptions.SigewineOptionsBuilder sigewineOptions) {
+        Sigewine sigewine = new Sigewine(sigewineOptions.build());
+        sigewine.scan(SigewineSupplierTest.class);
+
+        // Supplier constructor parameters break circular dependencies
+        final var orderService = sigewine.inject(OrderService.class);
+        final var customerService = sigewine.inject(CustomerService.class);
+        Assertions.assertSame(customerService, orderService.getCustomerService().get());
+        Assertions.assertSame(orderService, customerService.getOrderService());
+        Assertions.assertSame(orderService.getCustomerService().get(), orderService.getCustomerService().get());
+
+        // Classes not registered as beans are injected on every call, until registered
+        final var auditLogSupplier = sigewine.getBeanSupplier(AuditLog.class, null);
+        Assertions.assertNotSame(auditLogSupplier.get(), auditLogSupplier.get());
+        Assertions.assertNotSame(sigewine.inject(AuditLog.class), sigewine.inject(AuditLog.class));
+        final var auditLog = new AuditLog();
+        sigewine.registerBean(BeanDefinition.of(AuditLog.class), auditLog);
+        Assertions.assertSame(auditLog, auditLogSupplier.get());
+        Assertions.assertSame(auditLog, sigewine.inject(AuditLog.class));
+
+        final var namedAuditLog = new AuditLog();
+        sigewine.registerBean(BeanDefinition.of(AuditLog.class, "named"), namedAuditLog);
+        Assertions.assertSame(namedAuditLog, sigewine.inject(AuditLog.class, "named"));
+        Assertions.assertSame(auditLog, sigewine.inject(AuditLog.class));
+        Assertions.assertSame(customerService, orderService.getCustomerService().get());
+    }
+
+    @Test
+    public void inject_memoizesOnlyRegisteredBeans() {
+        final var sigewine = new Sigewine() {
+            boolean isMemoized(Class<?> clazz, String beanName) {
+                return beanName.isEmpty()
+                    ? injectedBeans.containsKey(clazz)
+                    : injectedNamedBeans.getOrDefault(clazz, Map.of()).containsKey(beanName);
+            }
+        };
+
+        sigewine.inject(AuditLog.class);
+        sigewine.inject(AuditLog.class, "named");
+        Assertions.assertFalse(sigewine.isMemoized(AuditLog.class, ""));
+        Assertions.assertFalse(sigewine.isMemoized(AuditLog.class, "named"));
+
+        sigewine.registerBean(BeanDefinition.of(AuditLog.class, "named"), new AuditLog());
+        sigewine.inject(AuditLog.class, "named");
+        Assertions.assertTrue(sigewine.isMemoized(AuditLog.class, "named"));
+    }
+}